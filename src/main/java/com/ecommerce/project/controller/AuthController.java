@@ -6,13 +6,20 @@ import com.ecommerce.project.model.User;
 import com.ecommerce.project.repositories.RoleRepository;
 import com.ecommerce.project.repositories.UserRepository;
 import com.ecommerce.project.security.jwt.JwtUtils;
+import com.ecommerce.project.security.jwt.TokenRevocationStore;
 import com.ecommerce.project.security.request.LoginRequest;
 import com.ecommerce.project.security.request.SignupRequest;
 import com.ecommerce.project.security.response.MessageResponse;
 import com.ecommerce.project.security.response.UserInfoResponse;
 import com.ecommerce.project.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
@@ -21,11 +28,13 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -47,8 +56,44 @@ public class AuthController {
     @Autowired
     PasswordEncoder encoder;
 
+    @Value("${spring.app.bcryptThreads:4}")
+    private int bcryptThreads;
+
+    @Value("${spring.app.bcryptQueueCapacity:50}")
+    private int bcryptQueueCapacity;
+
+    /**
+     * Signin and signup run BCrypt on this pool instead of on Tomcat worker threads. When the pool
+     * and its queue are full, new tasks are rejected right away. It is kept out of the context so
+     * it does not replace Boot's applicationTaskExecutor.
+     */
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    @Autowired
+    TokenRevocationStore tokenRevocationStore;
+
+    @PostConstruct
+    void startPasswordHashing() {
+        passwordHashingExecutor = new ThreadPoolTaskExecutor();
+        passwordHashingExecutor.setCorePoolSize(bcryptThreads);
+        passwordHashingExecutor.setMaxPoolSize(bcryptThreads);
+        passwordHashingExecutor.setQueueCapacity(bcryptQueueCapacity);
+        passwordHashingExecutor.setThreadNamePrefix("bcrypt-");
+        passwordHashingExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        passwordHashingExecutor.initialize();
+    }
+
+    @PreDestroy
+    void stopPasswordHashing() {
+        passwordHashingExecutor.shutdown();
+    }
+
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody LoginRequest loginRequest) {
+        return runPasswordTask(() -> signin(loginRequest));
+    }
+
+    private ResponseEntity<?> signin(LoginRequest loginRequest) {
         Authentication authentication;
         try {
             authentication = authenticationManager
@@ -60,8 +105,6 @@ public class AuthController {
             return new ResponseEntity<Object>(map, HttpStatus.NOT_FOUND);
         }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
         ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(userDetails);
@@ -79,7 +122,11 @@ public class AuthController {
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+        return runPasswordTask(() -> signup(signUpRequest));
+    }
+
+    private ResponseEntity<?> signup(SignupRequest signUpRequest) {
         if (userRepository.existsByUserName(signUpRequest.getUsername())) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: Username is already taken!"));
         }
@@ -129,6 +176,17 @@ public class AuthController {
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
 
+    private CompletableFuture<ResponseEntity<?>> runPasswordTask(Supplier<ResponseEntity<?>> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, passwordHashingExecutor);
+        } catch (TaskRejectedException exception) {
+            ResponseEntity<?> busy = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new MessageResponse("Error: Too many requests, please try again shortly"));
+            return CompletableFuture.completedFuture(busy);
+        }
+    }
+
     @GetMapping("/username")
     public String currentUserName(Authentication authentication){
         if (authentication != null)
@@ -153,7 +211,13 @@ public class AuthController {
     }
 
     @PostMapping("/signout")
-    public ResponseEntity<?> signoutUser(){
+    public ResponseEntity<?> signoutUser(HttpServletRequest request){
+        String jwt = jwtUtils.getJwtFromCookies(request);
+        Claims claims = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
+        if (claims != null) {
+            tokenRevocationStore.revoke(claims);
+        }
+
         ResponseCookie cookie = jwtUtils.getCleanJwtCookie();
         return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE,
                         cookie.toString())
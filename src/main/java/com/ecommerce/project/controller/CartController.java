@@ -1,8 +1,6 @@
 package com.ecommerce.project.controller;
 
-import com.ecommerce.project.model.Cart;
 import com.ecommerce.project.payload.CartDTO;
-import com.ecommerce.project.repositories.CartRepository;
 import com.ecommerce.project.service.CartService;
 import com.ecommerce.project.util.AuthUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,9 +14,6 @@ import java.util.List;
 @RequestMapping("/api")
 public class CartController {
 
-    @Autowired
-    private CartRepository cartRepository;
-
     @Autowired
     private AuthUtil authUtil;
 
@@ -41,9 +36,7 @@ public class CartController {
     @GetMapping("/carts/users/cart")
     public ResponseEntity<CartDTO> getCartById(){
         String emailId = authUtil.loggedInEmail();
-        Cart cart = cartRepository.findCartByEmail(emailId);
-        Long cartId = cart.getCartId();
-        CartDTO cartDTO = cartService.getCart(emailId, cartId);
+        CartDTO cartDTO = cartService.getUserCart(emailId);
         return new ResponseEntity<CartDTO>(cartDTO, HttpStatus.OK);
     }
 
@@ -0,0 +1,47 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.service.MenuSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+public class MenuController {
+
+    @Autowired
+    private MenuSnapshot menuSnapshot;
+
+    // Served from prebuilt bytes: no repository call, mapping or JSON serialization per request
+    @GetMapping("/public/menu")
+    public ResponseEntity<byte[]> getMenu(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MenuSnapshot.Snapshot snapshot = menuSnapshot.current();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .lastModified(snapshot.builtAt())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+}
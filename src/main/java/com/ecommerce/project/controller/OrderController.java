@@ -4,6 +4,9 @@ import com.ecommerce.project.payload.OrderDTO;
 import com.ecommerce.project.payload.OrderRequestDTO;
 import com.ecommerce.project.payload.PaymentStatusUpdateDTO;
 import com.ecommerce.project.payload.StripePaymentDto;
+import com.ecommerce.project.service.CartStore;
+import com.ecommerce.project.service.ExportFormat;
+import com.ecommerce.project.service.ExportService;
 import com.ecommerce.project.service.OrderService;
 import com.ecommerce.project.service.StripeService;
 import com.ecommerce.project.util.AuthUtil;
@@ -11,11 +14,15 @@ import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,9 +38,10 @@ public class OrderController {
     private AuthUtil authUtil;
     @Autowired
     private StripeService stripeService;
-
     @Autowired
-    private StripeService stripeService;
+    private ExportService exportService;
+    @Autowired(required = false)
+    private CartStore cartStore;
 
     @PostMapping("/order/users/payments/{paymentMethod}")
     public ResponseEntity<OrderDTO> orderProducts(
@@ -49,15 +57,28 @@ public class OrderController {
             orderRequestDTO.setPgResponseMessage("Pending cash payment");
         }
 
-        OrderDTO order = orderService.placeOrder(
-                emailId,
-                orderRequestDTO.getAddressId(),
-                paymentMethod,
-                orderRequestDTO.getPgName(),
-                orderRequestDTO.getPgPaymentId(),
-                orderRequestDTO.getPgStatus(),
-                orderRequestDTO.getPgResponseMessage()
-        );
+        // The in-memory cart is written before the order transaction opens, never inside it
+        if (cartStore != null) {
+            cartStore.beginCheckout(emailId);
+        }
+        OrderDTO order;
+        boolean placed = false;
+        try {
+            order = orderService.placeOrder(
+                    emailId,
+                    orderRequestDTO.getAddressId(),
+                    paymentMethod,
+                    orderRequestDTO.getPgName(),
+                    orderRequestDTO.getPgPaymentId(),
+                    orderRequestDTO.getPgStatus(),
+                    orderRequestDTO.getPgResponseMessage()
+            );
+            placed = true;
+        } finally {
+            if (cartStore != null) {
+                cartStore.endCheckout(emailId, placed);
+            }
+        }
 
         return new ResponseEntity<>(order, HttpStatus.CREATED);
     }
@@ -82,6 +103,22 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(name = "format", defaultValue = "ndjson", required = false) String format,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "status", required = false) String status) {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        StreamingResponseBody body = out -> exportService.exportOrders(out, exportFormat, from, to, status);
+        return ResponseEntity.ok()
+                .contentType(exportFormat == ExportFormat.CSV
+                        ? MediaType.parseMediaType("text/csv")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/admin/order/{orderId}")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long orderId) {
@@ -111,15 +148,6 @@ public class OrderController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
-    @PutMapping("/admin/order/{orderId}/payment-status")
-    public ResponseEntity<OrderDTO> updatePaymentStatus(
-            @PathVariable Long orderId,
-            @RequestBody PaymentStatusUpdateDTO paymentStatusUpdateDTO) {
-        OrderDTO updatedOrder = orderService.updatePaymentStatus(orderId, paymentStatusUpdateDTO);
-        return ResponseEntity.ok(updatedOrder);
-    }
-
 }
 
 
@@ -2,18 +2,38 @@ package com.ecommerce.project.controller;
 
 import com.ecommerce.project.config.AppConstants;
 import com.ecommerce.project.payload.IndividualProductDTO;
+import com.ecommerce.project.payload.ProductBulkUpdateRequest;
+import com.ecommerce.project.payload.ProductBulkUpdateResponse;
+import com.ecommerce.project.payload.ProductCursorResponse;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductFilterResponse;
+import com.ecommerce.project.payload.ProductImportResponse;
 import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.payload.SuggestionDTO;
+import com.ecommerce.project.search.ProductSuggester;
+import com.ecommerce.project.service.CatalogVersion;
+import com.ecommerce.project.service.ExportFormat;
+import com.ecommerce.project.service.ExportService;
+import com.ecommerce.project.service.ProductImportFormat;
+import com.ecommerce.project.service.ProductImportService;
 import com.ecommerce.project.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
@@ -21,6 +41,19 @@ public class ProductController {
 
     @Autowired
     ProductService productService;
+
+    @Autowired
+    ProductSuggester productSuggester;
+
+    @Autowired
+    ProductImportService productImportService;
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    CatalogVersion catalogVersion;
+
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/admin/categories/{categoryId}/product")
     public ResponseEntity<ProductDTO> addProduct(@Valid @RequestBody ProductDTO productDTO,
@@ -29,21 +62,91 @@ public class ProductController {
         return new ResponseEntity<>(savedProductDTO, HttpStatus.CREATED);
     }
 
+    // The body is read as a stream, so send it raw (not multipart): text/csv with a header row, or one JSON object per line
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/admin/products/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportResponse> importProducts(HttpServletRequest request) throws IOException {
+        ProductImportFormat format = request.getContentType().startsWith("text/csv")
+                ? ProductImportFormat.CSV
+                : ProductImportFormat.NDJSON;
+        ProductImportResponse response = productImportService.importProducts(request.getInputStream(), format);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/products/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(name = "format", defaultValue = "ndjson", required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        StreamingResponseBody body = out -> exportService.exportProducts(out, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat == ExportFormat.CSV
+                        ? MediaType.parseMediaType("text/csv")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/public/products")
     public ResponseEntity<ProductResponse> getAllProducts(
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            @RequestParam(name = "slice", defaultValue = "false", required = false) boolean slice,
+            WebRequest webRequest
+    ){
+        // Revalidations are answered from the in-memory version, before any repository call
+        CatalogVersion.Version version = catalogVersion.catalog();
+        if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        ProductResponse productResponse = productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder, slice);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productResponse);
+    }
+
+    @GetMapping("/public/products/scroll")
+    public ResponseEntity<ProductCursorResponse> scrollAllProducts(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
             @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder
     ){
-        ProductResponse productResponse = productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(productResponse,HttpStatus.OK);
+        ProductCursorResponse productResponse = productService.scrollAllProducts(cursor, pageSize, sortBy, sortOrder);
+        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+    }
+
+    @GetMapping("/public/products/filter")
+    public ResponseEntity<ProductFilterResponse> filterProducts(
+            @RequestParam(name = "categoryIds", required = false) Set<Long> categoryIds,
+            @RequestParam(name = "tags", required = false) Set<String> tags,
+            @RequestParam(name = "minPrice", required = false) Double minPrice,
+            @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(name = "discounted", defaultValue = "false", required = false) boolean discounted,
+            @RequestParam(name = "inStock", defaultValue = "false", required = false) boolean inStock,
+            @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder) {
+        ProductFilter filter = new ProductFilter(categoryIds, tags, minPrice, maxPrice, discounted, inStock);
+        ProductFilterResponse response = productService.filterProducts(filter, pageNumber, pageSize, sortBy, sortOrder);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/public/products/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggestProducts(
+            @RequestParam(name = "prefix") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10", required = false) Integer limit) {
+        return ResponseEntity.ok(productSuggester.suggest(prefix, limit));
     }
 
     @GetMapping("/public/products/{productId}")
-    public ResponseEntity<IndividualProductDTO> getIndividualProduct(@PathVariable Long productId) {
+    public ResponseEntity<IndividualProductDTO> getIndividualProduct(@PathVariable Long productId, WebRequest webRequest) {
+        CatalogVersion.Version version = catalogVersion.product(productId);
+        if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         IndividualProductDTO dto = productService.getIndividualProduct(productId);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(dto);
     }
 
 
@@ -53,8 +156,34 @@ public class ProductController {
                                                                  @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
                                                                  @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
                                                                  @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-                                                                 @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder){
-        ProductResponse productResponse = productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder);
+                                                                 @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+                                                                 @RequestParam(name = "slice", defaultValue = "false", required = false) boolean slice,
+                                                                 WebRequest webRequest){
+        CatalogVersion.Version version = catalogVersion.category(categoryId);
+        if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        ProductResponse productResponse = productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder, slice);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productResponse);
+    }
+
+    @GetMapping("/public/categories/{categoryId}/products/scroll")
+    public ResponseEntity<ProductCursorResponse> scrollProductsByCategory(@PathVariable Long categoryId,
+                                                                          @RequestParam(name = "cursor", required = false) String cursor,
+                                                                          @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+                                                                          @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+                                                                          @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder){
+        ProductCursorResponse productResponse = productService.scrollByCategory(categoryId, cursor, pageSize, sortBy, sortOrder);
+        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+    }
+
+    @GetMapping("/public/products/keyword/{keyword}/scroll")
+    public ResponseEntity<ProductCursorResponse> scrollProductsByKeyword(@PathVariable String keyword,
+                                                                         @RequestParam(name = "cursor", required = false) String cursor,
+                                                                         @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+                                                                         @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+                                                                         @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder){
+        ProductCursorResponse productResponse = productService.scrollProductByKeyword(keyword, cursor, pageSize, sortBy, sortOrder);
         return new ResponseEntity<>(productResponse, HttpStatus.OK);
     }
 
@@ -63,8 +192,9 @@ public class ProductController {
                                                                 @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
                                                                 @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
                                                                 @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-                                                                @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder){
-        ProductResponse productResponse = productService.searchProductByKeyword(keyword, pageNumber, pageSize, sortBy, sortOrder);
+                                                                @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+                                                                @RequestParam(name = "slice", defaultValue = "false", required = false) boolean slice){
+        ProductResponse productResponse = productService.searchProductByKeyword(keyword, pageNumber, pageSize, sortBy, sortOrder, slice);
         return new ResponseEntity<>(productResponse, HttpStatus.FOUND);
     }
     @PreAuthorize("hasAnyRole('ADMIN', 'SELLER')")
@@ -74,6 +204,21 @@ public class ProductController {
         ProductDTO updatedProductDTO = productService.updateProduct(productId, productDTO);
         return new ResponseEntity<>(updatedProductDTO, HttpStatus.OK);
     }
+    @PreAuthorize("hasAnyRole('ADMIN', 'SELLER')")
+    @PutMapping("/admin/products/{productId}/tags")
+    public ResponseEntity<Set<String>> updateProductTags(@RequestBody Set<String> tags,
+                                                         @PathVariable Long productId){
+        Set<String> updatedTags = productService.updateProductTags(productId, tags);
+        return new ResponseEntity<>(updatedTags, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/admin/products/bulk")
+    public ResponseEntity<ProductBulkUpdateResponse> bulkUpdateProducts(@Valid @RequestBody ProductBulkUpdateRequest request){
+        ProductBulkUpdateResponse response = productService.bulkUpdate(request);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/admin/products/{productId}")
     public ResponseEntity<ProductDTO> deleteProduct(@PathVariable Long productId){
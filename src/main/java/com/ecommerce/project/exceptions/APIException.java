@@ -1,12 +1,17 @@
 package com.ecommerce.project.exceptions;
 
+/**
+ * Expected business error answered with a 400. It is thrown on ordinary request paths,
+ * so no stack trace is captured.
+ */
 public class APIException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
     public APIException() {
+        super(null, null, false, false);
     }
 
     public APIException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
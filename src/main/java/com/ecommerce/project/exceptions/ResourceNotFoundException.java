@@ -1,25 +1,40 @@
 package com.ecommerce.project.exceptions;
 
+/**
+ * Expected lookup miss answered with a 404. No stack trace is captured, and the message
+ * is only built when it is first read.
+ */
 public class ResourceNotFoundException extends RuntimeException {
     String resourceName;
     String field;
     String fieldName;
     Long fieldId;
 
+    private String message;
+
     public ResourceNotFoundException() {
+        super(null, null, false, false);
     }
 
     public ResourceNotFoundException(String resourceName, String field, String fieldName) {
-        super(String.format("%s not found with %s: %s", resourceName, field, fieldName));
+        super(null, null, false, false);
         this.resourceName = resourceName;
         this.field = field;
         this.fieldName = fieldName;
     }
 
     public ResourceNotFoundException(String resourceName, String field, Long fieldId) {
-        super(String.format("%s not found with %s: %d", resourceName, field, fieldId));
+        super(null, null, false, false);
         this.resourceName = resourceName;
         this.field = field;
         this.fieldId = fieldId;
     }
+
+    @Override
+    public String getMessage() {
+        if (message == null && resourceName != null) {
+            message = resourceName + " not found with " + field + ": " + (fieldName != null ? fieldName : fieldId);
+        }
+        return message;
+    }
 }
@@ -0,0 +1,33 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Address;
+import com.ecommerce.project.payload.AddressDTO;
+
+public final class AddressMapper {
+
+    private AddressMapper() {
+    }
+
+    public static AddressDTO toDTO(Address address) {
+        return new AddressDTO(
+                address.getAddressId(),
+                address.getStreet(),
+                address.getBuildingName(),
+                address.getCity(),
+                address.getState(),
+                address.getCountry(),
+                address.getPincode());
+    }
+
+    public static Address toEntity(AddressDTO addressDTO) {
+        Address address = new Address(
+                addressDTO.getStreet(),
+                addressDTO.getBuildingName(),
+                addressDTO.getCity(),
+                addressDTO.getState(),
+                addressDTO.getCountry(),
+                addressDTO.getPincode());
+        address.setAddressId(addressDTO.getAddressId());
+        return address;
+    }
+}
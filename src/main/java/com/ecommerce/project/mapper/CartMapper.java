@@ -0,0 +1,28 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.ProductDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CartMapper {
+
+    private CartMapper() {
+    }
+
+    /**
+     * Each cart line becomes a ProductDTO whose quantity is the quantity in the cart, not the stock.
+     */
+    public static CartDTO toDTO(Cart cart) {
+        List<ProductDTO> products = new ArrayList<>(cart.getCartItems().size());
+        for (CartItem item : cart.getCartItems()) {
+            ProductDTO productDTO = ProductMapper.toDTO(item.getProduct());
+            productDTO.setQuantity(item.getQuantity());
+            products.add(productDTO);
+        }
+        return new CartDTO(cart.getCartId(), cart.getTotalPrice(), products);
+    }
+}
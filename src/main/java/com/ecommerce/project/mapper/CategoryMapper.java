@@ -0,0 +1,21 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.payload.CategoryDTO;
+
+public final class CategoryMapper {
+
+    private CategoryMapper() {
+    }
+
+    public static CategoryDTO toDTO(Category category) {
+        return new CategoryDTO(category.getCategoryId(), category.getCategoryName());
+    }
+
+    public static Category toEntity(CategoryDTO categoryDTO) {
+        Category category = new Category();
+        category.setCategoryId(categoryDTO.getCategoryId());
+        category.setCategoryName(categoryDTO.getCategoryName());
+        return category;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.OrderItem;
+import com.ecommerce.project.model.Payment;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.payload.PaymentDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class OrderMapper {
+
+    private OrderMapper() {
+    }
+
+    public static OrderDTO toDTO(Order order) {
+        List<OrderItemDTO> orderItems = new ArrayList<>(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            orderItems.add(toDTO(item));
+        }
+        return new OrderDTO(
+                order.getOrderId(),
+                order.getEmail(),
+                orderItems,
+                order.getOrderDate(),
+                toDTO(order.getPayment()),
+                order.getTotalAmount(),
+                order.getOrderStatus(),
+                order.getAddress() != null ? order.getAddress().getAddressId() : null);
+    }
+
+    public static OrderItemDTO toDTO(OrderItem orderItem) {
+        return new OrderItemDTO(
+                orderItem.getOrderItemId(),
+                orderItem.getProduct() != null ? ProductMapper.toDTO(orderItem.getProduct()) : null,
+                orderItem.getQuantity(),
+                orderItem.getDiscount(),
+                orderItem.getOrderedProductPrice());
+    }
+
+    private static PaymentDTO toDTO(Payment payment) {
+        if (payment == null) {
+            return null;
+        }
+        return new PaymentDTO(
+                payment.getPaymentId(),
+                payment.getPaymentMethod(),
+                payment.getPgPaymentId(),
+                payment.getPgStatus(),
+                payment.getPgResponseMessage(),
+                payment.getPgName());
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+
+/**
+ * Plain field copies between Product and ProductDTO; associations are never touched.
+ */
+public final class ProductMapper {
+
+    private ProductMapper() {
+    }
+
+    public static ProductDTO toDTO(Product product) {
+        return new ProductDTO(
+                product.getProductId(),
+                product.getProductName(),
+                product.getImage(),
+                product.getDescription(),
+                product.getQuantity(),
+                product.getPrice(),
+                product.getDiscount(),
+                product.getSpecialPrice());
+    }
+
+    public static Product toEntity(ProductDTO productDTO) {
+        Product product = new Product();
+        product.setProductId(productDTO.getProductId());
+        product.setProductName(productDTO.getProductName());
+        product.setImage(productDTO.getImage());
+        product.setDescription(productDTO.getDescription());
+        product.setQuantity(productDTO.getQuantity());
+        product.setPrice(productDTO.getPrice());
+        product.setDiscount(productDTO.getDiscount());
+        product.setSpecialPrice(productDTO.getSpecialPrice());
+        return product;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuCategoryDTO {
+    private Long categoryId;
+    private String categoryName;
+    private List<ProductDTO> products = new ArrayList<>();
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportDTO {
+    private Long orderId;
+    private String email;
+    private LocalDate orderDate;
+    private String orderStatus;
+    private Double totalAmount;
+    private String paymentMethod;
+    private String paymentStatus;
+    private Long addressId;
+    private List<OrderExportItemDTO> items = new ArrayList<>();
+}
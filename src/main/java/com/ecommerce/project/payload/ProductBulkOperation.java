@@ -0,0 +1,10 @@
+package com.ecommerce.project.payload;
+
+public enum ProductBulkOperation {
+    // value is a percentage, e.g. -15 lowers prices by 15%
+    PRICE_PERCENT,
+    // value is the new discount percentage, 0 to 100
+    DISCOUNT,
+    // value is the new stock quantity
+    STOCK
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBulkUpdateRequest {
+    @NotNull
+    private ProductBulkOperation operation;
+    @NotNull
+    private Double value;
+    // Select products either by category or by id, not both
+    private Long categoryId;
+    private List<Long> productIds;
+}
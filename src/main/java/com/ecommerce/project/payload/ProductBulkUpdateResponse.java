@@ -0,0 +1,14 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBulkUpdateResponse {
+    private ProductBulkOperation operation;
+    private int updatedProducts;
+    private int updatedCartLines;
+}
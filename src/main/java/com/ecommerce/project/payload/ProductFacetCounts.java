@@ -0,0 +1,19 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetCounts {
+    private Map<Long, Integer> categories;
+    private Map<String, Integer> tags;
+    private List<PriceRangeCount> prices;
+    private int discounted;
+    private int inStock;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Facet selection for the product filter: any of the categories, all of the tags,
+ * and a specialPrice range with both ends inclusive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+    private Set<Long> categoryIds;
+    private Set<String> tags;
+    private Double minPrice;
+    private Double maxPrice;
+    private boolean discounted;
+    private boolean inStock;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    // Capped, the rejected count is always exact
+    private List<ProductImportError> errors = new ArrayList<>();
+}
@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.id = ?1 AND ci.product.id = ?2")
     CartItem findCartItemByProductIdAndCartId(Long cartId, Long productId);
@@ -12,4 +14,23 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Modifying
     @Query("DELETE FROM CartItem ci WHERE ci.cart.id = ?1 AND ci.product.id = ?2")
     void deleteCartItemByProductIdAndCartId(Long cartId, Long productId);
+
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.productPrice = ?2, ci.discount = ?3 WHERE ci.product.id = ?1")
+    int repriceByProductId(Long productId, double productPrice, double discount);
+
+    // Copies the products' current special price and discount onto their open cart lines
+    @Modifying
+    @Query("UPDATE CartItem ci SET "
+            + "ci.productPrice = (SELECT p.specialPrice FROM Product p WHERE p.id = ci.product.id), "
+            + "ci.discount = (SELECT p.discount FROM Product p WHERE p.id = ci.product.id) "
+            + "WHERE ci.product.id IN ?1")
+    int repriceByProductIds(Collection<Long> productIds);
+
+    @Modifying
+    @Query("UPDATE CartItem ci SET "
+            + "ci.productPrice = (SELECT p.specialPrice FROM Product p WHERE p.id = ci.product.id), "
+            + "ci.discount = (SELECT p.discount FROM Product p WHERE p.id = ci.product.id) "
+            + "WHERE ci.product.id IN (SELECT p.id FROM Product p WHERE p.category.categoryId = ?1)")
+    int repriceByCategoryId(Long categoryId);
 }
@@ -1,18 +1,46 @@
 package com.ecommerce.project.repositories;
 
 import com.ecommerce.project.model.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
+    // Cart, lines and their products in one statement: everything CartMapper needs
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
     @Query("SELECT c FROM Cart c WHERE c.user.email = ?1")
     Cart findCartByEmail(String email);
 
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
     @Query("SELECT c FROM Cart c WHERE c.user.email = ?1 AND c.id = ?2")
     Cart findCartByEmailAndCartId(String emailId, Long cartId);
 
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+    @Query("SELECT c FROM Cart c")
+    List<Cart> findAllWithItems();
+
     @Query("SELECT c FROM Cart c JOIN FETCH c.cartItems ci JOIN FETCH ci.product p WHERE p.id = ?1")
     List<Cart> findCartsByProductId(Long productId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalPrice = "
+            + "(SELECT COALESCE(SUM(ci.productPrice * ci.quantity), 0) FROM CartItem ci WHERE ci.cart = c) "
+            + "WHERE c.id IN (SELECT ci.cart.id FROM CartItem ci WHERE ci.product.id = ?1)")
+    int recomputeTotalsForProduct(Long productId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalPrice = "
+            + "(SELECT COALESCE(SUM(ci.productPrice * ci.quantity), 0) FROM CartItem ci WHERE ci.cart = c) "
+            + "WHERE c.id IN (SELECT ci.cart.id FROM CartItem ci WHERE ci.product.id IN ?1)")
+    int recomputeTotalsForProducts(Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalPrice = "
+            + "(SELECT COALESCE(SUM(ci.productPrice * ci.quantity), 0) FROM CartItem ci WHERE ci.cart = c) "
+            + "WHERE c.id IN (SELECT ci.cart.id FROM CartItem ci WHERE ci.product.category.categoryId = ?1)")
+    int recomputeTotalsForCategory(Long categoryId);
 }
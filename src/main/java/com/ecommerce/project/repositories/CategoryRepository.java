@@ -1,8 +1,21 @@
 package com.ecommerce.project.repositories;
 
 import com.ecommerce.project.model.Category;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category,Long> {
     Category findByCategoryName(String categoryName);
+
+    Slice<Category> findAllBy(Pageable pageDetails);
+
+    @Query("SELECT c.categoryId, c.categoryName FROM categories c")
+    List<Object[]> findAllNames();
+
+    @Query("SELECT c.categoryId FROM categories c")
+    List<Long> findAllIds();
 }
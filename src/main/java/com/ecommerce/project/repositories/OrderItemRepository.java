@@ -2,11 +2,16 @@ package com.ecommerce.project.repositories;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.project.model.OrderItem;
 
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
+    @Query("SELECT oi.product.productId, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.product.productId")
+    List<Object[]> sumQuantityByProduct();
 }
\ No newline at end of file
@@ -1,16 +1,36 @@
 package com.ecommerce.project.repositories;
 
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.project.model.Order;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByEmail(String email);
     Optional<Order> findByOrderIdAndEmail(Long orderId, String email);
+
+    // One flat row per order line, ordered so the lines of an order are adjacent; read forward-only
+    // with a cursor, and as scalars so the persistence context stays empty however many rows stream by
+    @Query("SELECT o.orderId, o.email, o.orderDate, o.orderStatus, o.totalAmount, pay.paymentMethod, pay.pgStatus, "
+            + "a.addressId, oi.orderItemId, p.productId, p.productName, oi.quantity, oi.discount, oi.orderedProductPrice "
+            + "FROM Order o LEFT JOIN o.payment pay LEFT JOIN o.address a "
+            + "LEFT JOIN o.orderItems oi LEFT JOIN oi.product p "
+            + "WHERE (:from IS NULL OR o.orderDate >= :from) AND (:to IS NULL OR o.orderDate <= :to) "
+            + "AND (:status IS NULL OR o.orderStatus = :status) "
+            + "ORDER BY o.orderId, oi.orderItemId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Object[]> streamOrderLinesForExport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                               @Param("status") String status);
 }
\ No newline at end of file
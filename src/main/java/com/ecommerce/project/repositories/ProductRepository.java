@@ -2,14 +2,143 @@ package com.ecommerce.project.repositories;
 
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.IndividualProductDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    Page<Product> findByCategoryOrderByPriceAsc(Category category, Pageable pageDetails);
+    // Catalog reads project straight into DTOs: no entity graph, so no category, seller or cart rows are loaded.
+    // Slice variants fetch pageSize + 1 rows to know if there is a next page, without a COUNT(*)
+    String PRODUCT_DTO = "SELECT new com.ecommerce.project.payload.ProductDTO(p.productId, p.productName, p.image, "
+            + "p.description, p.quantity, p.price, p.discount, p.specialPrice) FROM Product p";
+
+    @Query(value = PRODUCT_DTO, countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductDTO> findProductDTOs(Pageable pageDetails);
+
+    @Query(PRODUCT_DTO)
+    Slice<ProductDTO> findProductDTOSlice(Pageable pageDetails);
+
+    @Query(value = PRODUCT_DTO + " WHERE p.category.categoryId = :categoryId ORDER BY p.price ASC",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.categoryId = :categoryId")
+    Page<ProductDTO> findProductDTOsByCategory(@Param("categoryId") Long categoryId, Pageable pageDetails);
+
+    @Query(PRODUCT_DTO + " WHERE p.category.categoryId = :categoryId ORDER BY p.price ASC")
+    Slice<ProductDTO> findProductDTOSliceByCategory(@Param("categoryId") Long categoryId, Pageable pageDetails);
+
+    @Query(value = PRODUCT_DTO + " WHERE LOWER(p.productName) LIKE LOWER(:keyword)",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE LOWER(p.productName) LIKE LOWER(:keyword)")
+    Page<ProductDTO> findProductDTOsByNameLike(@Param("keyword") String keyword, Pageable pageDetails);
+
+    @Query(PRODUCT_DTO + " WHERE LOWER(p.productName) LIKE LOWER(:keyword)")
+    Slice<ProductDTO> findProductDTOSliceByNameLike(@Param("keyword") String keyword, Pageable pageDetails);
+
+    @Query(PRODUCT_DTO + " WHERE p.productId IN :productIds")
+    List<ProductDTO> findProductDTOsByIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT new com.ecommerce.project.payload.IndividualProductDTO(p.productId, p.productName, p.image, "
+            + "p.description, p.quantity, c.categoryId, p.price, p.discount, p.specialPrice) "
+            + "FROM Product p LEFT JOIN p.category c WHERE p.productId = :productId")
+    Optional<IndividualProductDTO> findIndividualProductById(@Param("productId") Long productId);
+
+    @Query("SELECT new com.ecommerce.project.payload.IndividualProductDTO(p.productId, p.productName, p.image, "
+            + "p.description, p.quantity, c.categoryId, p.price, p.discount, p.specialPrice) "
+            + "FROM Product p LEFT JOIN p.category c ORDER BY p.productId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<IndividualProductDTO> streamAllForExport();
+
+    @Query("SELECT new com.ecommerce.project.payload.IndividualProductDTO(p.productId, p.productName, p.image, "
+            + "p.description, p.quantity, c.categoryId, p.price, p.discount, p.specialPrice) "
+            + "FROM Product p JOIN p.category c ORDER BY c.categoryId, p.price, p.productId")
+    List<IndividualProductDTO> findMenuProducts();
+
+    @Query("SELECT p.productId, p.productName, p.description FROM Product p")
+    List<Object[]> findSearchableFields();
+
+    @Query("SELECT p.productId, p.productName, c.categoryId FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findSuggestionFields();
+
+    @Query("SELECT p.productId, c.categoryId, p.specialPrice, p.discount, p.quantity FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findFacetFields();
+
+    @Query("SELECT p.productId, c.categoryId, p.specialPrice, p.discount, p.quantity FROM Product p LEFT JOIN p.category c "
+            + "WHERE p.productId IN :productIds")
+    List<Object[]> findFacetFieldsByIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT p.productId, c.categoryId, p.specialPrice, p.discount, p.quantity FROM Product p JOIN p.category c "
+            + "WHERE c.categoryId = :categoryId")
+    List<Object[]> findFacetFieldsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT p.productId, t FROM Product p JOIN p.tags t")
+    List<Object[]> findAllTags();
+
+    @Query("SELECT p.productId FROM Product p WHERE p.category.categoryId = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT p.productId FROM Product p WHERE p.productId IN :productIds")
+    List<Long> findExistingIds(@Param("productIds") Collection<Long> productIds);
+
+    // Bulk updates keep specialPrice = price - discount% of price. specialPrice is assigned first because
+    // MySQL evaluates SET clauses left to right against already-updated columns
+    @Modifying
+    @Query("UPDATE Product p SET p.specialPrice = p.price * :factor - p.discount * 0.01 * p.price * :factor, "
+            + "p.price = p.price * :factor WHERE p.productId IN :productIds")
+    int scalePrices(@Param("productIds") Collection<Long> productIds, @Param("factor") double factor);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.discount = :discount, p.specialPrice = p.price - :discount * 0.01 * p.price "
+            + "WHERE p.productId IN :productIds")
+    int updateDiscounts(@Param("productIds") Collection<Long> productIds, @Param("discount") double discount);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = :quantity WHERE p.productId IN :productIds")
+    int updateStock(@Param("productIds") Collection<Long> productIds, @Param("quantity") int quantity);
+
+    // Same updates for a whole category, without sending its product ids back and forth
+    @Modifying
+    @Query("UPDATE Product p SET p.specialPrice = p.price * :factor - p.discount * 0.01 * p.price * :factor, "
+            + "p.price = p.price * :factor WHERE p.category.categoryId = :categoryId")
+    int scalePricesInCategory(@Param("categoryId") Long categoryId, @Param("factor") double factor);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.discount = :discount, p.specialPrice = p.price - :discount * 0.01 * p.price "
+            + "WHERE p.category.categoryId = :categoryId")
+    int updateDiscountsInCategory(@Param("categoryId") Long categoryId, @Param("discount") double discount);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = :quantity WHERE p.category.categoryId = :categoryId")
+    int updateStockInCategory(@Param("categoryId") Long categoryId, @Param("quantity") int quantity);
+
+    // Served by the product_name index; one lookup per import chunk
+    @Query("SELECT p.category.categoryId, p.productName FROM Product p WHERE p.productName IN :productNames")
+    List<Object[]> findCategoryAndNameByProductNameIn(@Param("productNames") Collection<String> productNames);
+
+    @Query("SELECT p.category.categoryId, COUNT(p) FROM Product p GROUP BY p.category.categoryId")
+    List<Object[]> countProductsByCategory();
+
+    // Keyset (seek) queries: no OFFSET and no COUNT, the position carries the last sort key and productId
+    Window<Product> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Product> findByCategory(Category category, ScrollPosition position, Limit limit, Sort sort);
 
-    Page<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+    Window<Product> findByProductNameLikeIgnoreCase(String keyword, ScrollPosition position, Limit limit, Sort sort);
 }
@@ -0,0 +1,356 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.payload.PriceRangeCount;
+import com.ecommerce.project.payload.ProductFacetCounts;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap indexes over the filterable product facets: category, tag, price bucket,
+ * discounted and in stock. Every product holds a dense slot number, so a filter is a few BitSet
+ * ANDs and ORs and a facet count is the cardinality of an intersection. Built once the application
+ * is ready and kept current by product writes and stock decrements; changes made inside a
+ * transaction are applied once it commits.
+ */
+@Component
+public class ProductFacetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    public record Result(List<Long> productIds, ProductFacetCounts facets) {
+    }
+
+    private record Facts(Long categoryId, double price, boolean discounted, boolean inStock, Set<String> tags) {
+    }
+
+    @Value("${spring.app.facetPriceBucketWidth:50}")
+    private double bucketWidth;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Facts> facts = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+    private final BitSet discounted = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private final Map<String, BitSet> byTag = new HashMap<>();
+    private final NavigableMap<Integer, BitSet> byPriceBucket = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        List<Object[]> rows = productRepository.findFacetFields();
+        Map<Long, Set<String>> tags = new HashMap<>();
+        for (Object[] row : productRepository.findAllTags()) {
+            tags.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            productIds.clear();
+            facts.clear();
+            freeSlots.clear();
+            live.clear();
+            discounted.clear();
+            inStock.clear();
+            byCategory.clear();
+            byTag.clear();
+            byPriceBucket.clear();
+            for (Object[] row : rows) {
+                Long productId = (Long) row[0];
+                putLocked(productId, toFacts(row, tags.getOrDefault(productId, Set.of())));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product facet index built with {} products and {} tags", rows.size(), byTag.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public static String normalizeTag(String tag) {
+        return TextNormalizer.fold(tag).trim();
+    }
+
+    /**
+     * Indexes a product's price, discount, stock and category. Its tags are left as they are.
+     */
+    public void index(Long productId, Long categoryId, double specialPrice, double discount, Integer quantity) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                putLocked(productId, new Facts(categoryId, specialPrice, discount > 0,
+                        quantity != null && quantity > 0, tagsLocked(productId)));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Re-indexes rows from {@link ProductRepository#findFacetFieldsByIds}, keeping each product's tags.
+     */
+    public void reindex(List<Object[]> rows) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    Long productId = (Long) row[0];
+                    putLocked(productId, toFacts(row, tagsLocked(productId)));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void updateStock(Long productId, int quantity) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slots.get(productId);
+                if (slot != null) {
+                    inStock.set(slot, quantity > 0);
+                    Facts old = facts.get(slot);
+                    facts.set(slot, new Facts(old.categoryId(), old.price(), old.discounted(), quantity > 0, old.tags()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void updateTags(Long productId, Set<String> tags) {
+        Set<String> copy = Set.copyOf(tags);
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slots.get(productId);
+                if (slot != null) {
+                    Facts old = facts.get(slot);
+                    putLocked(productId, new Facts(old.categoryId(), old.price(), old.discounted(), old.inStock(), copy));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long productId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slots.remove(productId);
+                if (slot != null) {
+                    clearSlotLocked(slot);
+                    productIds.set(slot, null);
+                    freeSlots.push(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Product ids matching every selected facet, ordered by productId or by specialPrice,
+     * with the facet counts of that result set.
+     */
+    public Result filter(ProductFilter filter, boolean byPrice, boolean descending) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+
+            if (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty()) {
+                BitSet anyCategory = new BitSet();
+                for (Long categoryId : filter.getCategoryIds()) {
+                    BitSet bits = byCategory.get(categoryId);
+                    if (bits != null) {
+                        anyCategory.or(bits);
+                    }
+                }
+                matches.and(anyCategory);
+            }
+            if (filter.getTags() != null) {
+                for (String tag : filter.getTags()) {
+                    BitSet bits = byTag.get(normalizeTag(tag));
+                    if (bits == null) {
+                        matches.clear();
+                        break;
+                    }
+                    matches.and(bits);
+                }
+            }
+            if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+                matches.and(priceRangeLocked(filter.getMinPrice(), filter.getMaxPrice()));
+            }
+            if (filter.isDiscounted()) {
+                matches.and(discounted);
+            }
+            if (filter.isInStock()) {
+                matches.and(inStock);
+            }
+
+            Comparator<Integer> order = byPrice
+                    ? Comparator.comparingDouble((Integer slot) -> facts.get(slot).price())
+                            .thenComparing(slot -> productIds.get(slot))
+                    : Comparator.comparing((Integer slot) -> productIds.get(slot));
+            List<Long> ids = matches.stream().boxed()
+                    .sorted(descending ? order.reversed() : order)
+                    .map(productIds::get)
+                    .toList();
+            return new Result(ids, countsLocked(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet priceRangeLocked(Double minPrice, Double maxPrice) {
+        double min = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+        double max = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+        BitSet inRange = new BitSet();
+        if (min > max || byPriceBucket.isEmpty()) {
+            return inRange;
+        }
+
+        int fromBucket = minPrice != null ? bucket(min) : byPriceBucket.firstKey();
+        int toBucket = maxPrice != null ? bucket(max) : byPriceBucket.lastKey();
+        for (Map.Entry<Integer, BitSet> entry : byPriceBucket.subMap(fromBucket, true, toBucket, true).entrySet()) {
+            double lower = entry.getKey() * bucketWidth;
+            double upper = lower + bucketWidth;
+            if (lower >= min && upper <= max) {
+                inRange.or(entry.getValue());
+                continue;
+            }
+            // Only the buckets at either end of the range need the exact price
+            entry.getValue().stream()
+                    .filter(slot -> facts.get(slot).price() >= min && facts.get(slot).price() <= max)
+                    .forEach(inRange::set);
+        }
+        return inRange;
+    }
+
+    private ProductFacetCounts countsLocked(BitSet matches) {
+        Map<Long, Integer> categories = new TreeMap<>();
+        byCategory.forEach((categoryId, bits) -> {
+            int count = intersectionSize(matches, bits);
+            if (count > 0) {
+                categories.put(categoryId, count);
+            }
+        });
+
+        Map<String, Integer> tags = new TreeMap<>();
+        byTag.forEach((tag, bits) -> {
+            int count = intersectionSize(matches, bits);
+            if (count > 0) {
+                tags.put(tag, count);
+            }
+        });
+
+        List<PriceRangeCount> prices = new ArrayList<>();
+        byPriceBucket.forEach((bucket, bits) -> {
+            int count = intersectionSize(matches, bits);
+            if (count > 0) {
+                prices.add(new PriceRangeCount(bucket * bucketWidth, (bucket + 1) * bucketWidth, count));
+            }
+        });
+
+        return new ProductFacetCounts(categories, tags, prices,
+                intersectionSize(matches, discounted), intersectionSize(matches, inStock));
+    }
+
+    private static int intersectionSize(BitSet matches, BitSet bits) {
+        BitSet intersection = (BitSet) matches.clone();
+        intersection.and(bits);
+        return intersection.cardinality();
+    }
+
+    private void putLocked(Long productId, Facts productFacts) {
+        Integer slot = slots.get(productId);
+        if (slot != null) {
+            clearSlotLocked(slot);
+        } else if (!freeSlots.isEmpty()) {
+            slot = freeSlots.pop();
+            productIds.set(slot, productId);
+        } else {
+            slot = productIds.size();
+            productIds.add(productId);
+            facts.add(null);
+        }
+        slots.put(productId, slot);
+        facts.set(slot, productFacts);
+
+        live.set(slot);
+        discounted.set(slot, productFacts.discounted());
+        inStock.set(slot, productFacts.inStock());
+        if (productFacts.categoryId() != null) {
+            byCategory.computeIfAbsent(productFacts.categoryId(), id -> new BitSet()).set(slot);
+        }
+        for (String tag : productFacts.tags()) {
+            byTag.computeIfAbsent(tag, t -> new BitSet()).set(slot);
+        }
+        byPriceBucket.computeIfAbsent(bucket(productFacts.price()), b -> new BitSet()).set(slot);
+    }
+
+    private void clearSlotLocked(int slot) {
+        Facts old = facts.get(slot);
+        facts.set(slot, null);
+        live.clear(slot);
+        discounted.clear(slot);
+        inStock.clear(slot);
+        if (old.categoryId() != null) {
+            clearBit(byCategory, old.categoryId(), slot);
+        }
+        for (String tag : old.tags()) {
+            clearBit(byTag, tag, slot);
+        }
+        clearBit(byPriceBucket, bucket(old.price()), slot);
+    }
+
+    private static <K> void clearBit(Map<K, BitSet> bitmaps, K key, int slot) {
+        BitSet bits = bitmaps.get(key);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private Set<String> tagsLocked(Long productId) {
+        Integer slot = slots.get(productId);
+        return slot != null ? facts.get(slot).tags() : Set.of();
+    }
+
+    private Facts toFacts(Object[] row, Set<String> tags) {
+        double discount = (Double) row[3];
+        Integer quantity = (Integer) row[4];
+        return new Facts((Long) row[1], (Double) row[2], discount > 0, quantity != null && quantity > 0, tags);
+    }
+
+    private int bucket(double price) {
+        return (int) Math.floor(price / bucketWidth);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.repositories.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product names and descriptions, used instead of a
+ * leading-wildcard LIKE scan. Built once the application is ready and kept current by the
+ * product writes in ProductServiceImpl. Product names are also kept in a trigram index so a
+ * misspelt query can fall back to fuzzy matching.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByProduct = new HashMap<>();
+    private final TrigramIndex trigrams = new TrigramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        List<Object[]> rows = productRepository.findSearchableFields();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByProduct.clear();
+            trigrams.clear();
+            for (Object[] row : rows) {
+                addLocked((Long) row[0], (String) row[1], (String) row[2]);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product search index built with {} products and {} terms", rows.size(), postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Long productId, String productName, String description) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            addLocked(productId, productName, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Product ids containing every term of the query, best match first. The last term also
+     * matches as a prefix, so a partially typed word still finds results.
+     */
+    public List<Long> search(String query) {
+        List<String> terms = TextNormalizer.tokens(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Long, Integer> matches = i == terms.size() - 1
+                        ? prefixMatches(terms.get(i))
+                        : postings.getOrDefault(terms.get(i), Map.of());
+                if (scores == null) {
+                    scores = new HashMap<>(matches);
+                } else {
+                    scores.keySet().retainAll(matches.keySet());
+                    for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + matches.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Integer> ranked = scores;
+            return ranked.keySet().stream()
+                    .sorted(Comparator.comparing((Long id) -> ranked.get(id)).reversed()
+                            .thenComparing(Comparator.naturalOrder()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Typo-tolerant lookup over product names ("peperoni", "cuatro queso"), best match first.
+     * Meant as a fallback when {@link #search} finds nothing.
+     */
+    public List<Long> fuzzySearch(String query) {
+        lock.readLock().lock();
+        try {
+            return trigrams.search(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> prefixMatches(String prefix) {
+        Map<Long, Integer> exact = postings.get(prefix);
+        Map<Long, Integer> merged = exact != null ? new HashMap<>(exact) : new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(prefix, false).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            // Prefix hits rank below whole-word hits
+            entry.getValue().forEach((id, weight) -> merged.merge(id, Math.max(1, weight / 2), Math::max));
+        }
+        return merged;
+    }
+
+    private void addLocked(Long productId, String productName, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        TextNormalizer.tokens(productName).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        TextNormalizer.tokens(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(productId, weight));
+        termsByProduct.put(productId, weights.keySet());
+        trigrams.add(productId, productName);
+    }
+
+    private void removeLocked(Long productId) {
+        trigrams.remove(productId);
+        Set<String> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
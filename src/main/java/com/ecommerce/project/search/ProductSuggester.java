@@ -0,0 +1,121 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.payload.SuggestionDTO;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.OrderItemRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over product and category names, ranked by units sold. Lookups only read the
+ * current SuggestionTrie; catalog changes trigger a rebuild on a background thread, and bursts
+ * of changes collapse into one rebuild.
+ */
+@Component
+public class ProductSuggester {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggester.class);
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile SuggestionTrie trie;
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        SuggestionTrie current = trie;
+        if (current == null || prefix == null) {
+            return List.of();
+        }
+        // limit comes straight from the query string
+        return current.lookup(prefix, Math.max(0, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    public void catalogChanged() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        catalogChanged();
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.suggestRefreshMs:600000}",
+            initialDelayString = "${spring.app.suggestRefreshMs:600000}")
+    public void refreshPopularity() {
+        catalogChanged();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    void rebuild() {
+        try {
+            Map<Long, Long> unitsSold = new HashMap<>();
+            for (Object[] row : orderItemRepository.sumQuantityByProduct()) {
+                if (row[0] != null && row[1] != null) {
+                    unitsSold.put((Long) row[0], ((Number) row[1]).longValue());
+                }
+            }
+
+            List<SuggestionDTO> suggestions = new ArrayList<>();
+            List<Long> scores = new ArrayList<>();
+            Map<Long, Long> categoryScores = new HashMap<>();
+            for (Object[] row : productRepository.findSuggestionFields()) {
+                Long productId = (Long) row[0];
+                long score = unitsSold.getOrDefault(productId, 0L);
+                suggestions.add(new SuggestionDTO((String) row[1], "product", productId));
+                scores.add(score);
+                if (row[2] != null) {
+                    categoryScores.merge((Long) row[2], score, Long::sum);
+                }
+            }
+            for (Object[] row : categoryRepository.findAllNames()) {
+                Long categoryId = (Long) row[0];
+                suggestions.add(new SuggestionDTO((String) row[1], "category", categoryId));
+                scores.add(categoryScores.getOrDefault(categoryId, 0L));
+            }
+
+            trie = SuggestionTrie.build(suggestions, scores.stream().mapToLong(Long::longValue).toArray(), MAX_SUGGESTIONS);
+            logger.debug("Suggestion trie rebuilt with {} entries", suggestions.size());
+        } catch (RuntimeException e) {
+            logger.error("Cannot rebuild suggestion trie: {}", e.getMessage());
+        }
+    }
+}
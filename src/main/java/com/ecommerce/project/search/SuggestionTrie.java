@@ -0,0 +1,205 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.payload.SuggestionDTO;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Immutable prefix trie over suggestion texts, flattened into arrays. Every node keeps the ids of
+ * its best suggestions, so a lookup walks the prefix and copies at most maxResults references;
+ * the returned list is the only allocation. Each word of a text is also indexed, so "haw"
+ * finds "Pizza Hawaiana".
+ */
+final class SuggestionTrie {
+
+    private static final int MAX_KEY_LENGTH = 40;
+    private static final char[] FOLD = new char[0x250];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c).toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+            char base = decomposed.isEmpty() ? ' ' : decomposed.charAt(0);
+            FOLD[c] = Character.isLetterOrDigit(base) ? base : ' ';
+        }
+    }
+
+    private final SuggestionDTO[] suggestions;
+    private final char[] labels;
+    private final int[] childStart;
+    private final int[] childEnd;
+    private final int[] topStart;
+    private final int[] topEnd;
+    private final int[] top;
+
+    private SuggestionTrie(SuggestionDTO[] suggestions, char[] labels, int[] childStart, int[] childEnd,
+                           int[] topStart, int[] topEnd, int[] top) {
+        this.suggestions = suggestions;
+        this.labels = labels;
+        this.childStart = childStart;
+        this.childEnd = childEnd;
+        this.topStart = topStart;
+        this.topEnd = topEnd;
+        this.top = top;
+    }
+
+    static char fold(char c) {
+        if (c < FOLD.length) {
+            return FOLD[c];
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : ' ';
+    }
+
+    List<SuggestionDTO> lookup(String prefix, int limit) {
+        int node = 0;
+        boolean lastWasSpace = true;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = fold(prefix.charAt(i));
+            if (c == ' ') {
+                if (lastWasSpace) {
+                    continue;
+                }
+                lastWasSpace = true;
+            } else {
+                lastWasSpace = false;
+            }
+            node = child(node, c);
+            if (node < 0) {
+                return List.of();
+            }
+        }
+        if (node == 0) {
+            return List.of();
+        }
+
+        int count = Math.max(0, Math.min(limit, topEnd[node] - topStart[node]));
+        List<SuggestionDTO> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(suggestions[top[topStart[node] + i]]);
+        }
+        return results;
+    }
+
+    private int child(int node, char label) {
+        int low = childStart[node];
+        int high = childEnd[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midLabel = labels[mid];
+            if (midLabel < label) {
+                low = mid + 1;
+            } else if (midLabel > label) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds a trie keeping the maxResults best suggestions per prefix; higher score first,
+     * then shorter text.
+     */
+    static SuggestionTrie build(List<SuggestionDTO> suggestions, long[] scores, int maxResults) {
+        Comparator<Integer> ranking = Comparator.comparingLong((Integer id) -> -scores[id])
+                .thenComparingInt(id -> suggestions.get(id).getText().length())
+                .thenComparing(id -> suggestions.get(id).getText())
+                .thenComparingInt(id -> id);
+
+        BuildNode root = new BuildNode(' ');
+        for (int id = 0; id < suggestions.size(); id++) {
+            String key = foldKey(suggestions.get(id).getText());
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ') {
+                    insert(root, key, start, id);
+                }
+            }
+        }
+        computeTop(root, ranking, maxResults);
+
+        // Flatten breadth-first so the children of every node are contiguous and sorted
+        List<BuildNode> order = new ArrayList<>();
+        order.add(root);
+        int[] childStartList = new int[16];
+        int[] childEndList = new int[16];
+        for (int i = 0; i < order.size(); i++) {
+            BuildNode node = order.get(i);
+            if (i >= childStartList.length) {
+                childStartList = Arrays.copyOf(childStartList, childStartList.length * 2);
+                childEndList = Arrays.copyOf(childEndList, childEndList.length * 2);
+            }
+            childStartList[i] = order.size();
+            order.addAll(node.children.values());
+            childEndList[i] = order.size();
+        }
+
+        int size = order.size();
+        char[] labels = new char[size];
+        int[] topStart = new int[size];
+        int[] topEnd = new int[size];
+        int topTotal = order.stream().mapToInt(node -> node.top.length).sum();
+        int[] top = new int[topTotal];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            BuildNode node = order.get(i);
+            labels[i] = node.label;
+            topStart[i] = offset;
+            System.arraycopy(node.top, 0, top, offset, node.top.length);
+            offset += node.top.length;
+            topEnd[i] = offset;
+        }
+
+        return new SuggestionTrie(suggestions.toArray(new SuggestionDTO[0]), labels,
+                Arrays.copyOf(childStartList, size), Arrays.copyOf(childEndList, size), topStart, topEnd, top);
+    }
+
+    private static String foldKey(String text) {
+        StringBuilder key = new StringBuilder(text.length());
+        boolean lastWasSpace = true;
+        for (int i = 0; i < text.length() && key.length() < MAX_KEY_LENGTH; i++) {
+            char c = fold(text.charAt(i));
+            if (c == ' ') {
+                if (!lastWasSpace) {
+                    key.append(' ');
+                }
+                lastWasSpace = true;
+            } else {
+                key.append(c);
+                lastWasSpace = false;
+            }
+        }
+        return key.toString().trim();
+    }
+
+    private static void insert(BuildNode root, String key, int start, int id) {
+        BuildNode node = root;
+        for (int i = start; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), BuildNode::new);
+        }
+        node.ends.add(id);
+    }
+
+    private static void computeTop(BuildNode node, Comparator<Integer> ranking, int maxResults) {
+        TreeSet<Integer> best = new TreeSet<>(ranking);
+        best.addAll(node.ends);
+        for (BuildNode child : node.children.values()) {
+            computeTop(child, ranking, maxResults);
+            for (int id : child.top) {
+                best.add(id);
+            }
+        }
+        node.top = best.stream().limit(maxResults).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static final class BuildNode {
+        private final char label;
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private final List<Integer> ends = new ArrayList<>(1);
+        private int[] top;
+
+        private BuildNode(char label) {
+            this.label = label;
+        }
+    }
+}
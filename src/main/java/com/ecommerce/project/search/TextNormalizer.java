@@ -0,0 +1,48 @@
+package com.ecommerce.project.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns product text into search tokens: lower case, accents folded ("jamón" -> "jamon", "piña" -> "pina"),
+ * split on anything that is not a letter or digit, common Spanish stop words dropped
+ * and a trailing plural "s" removed so "quesos" matches "queso".
+ */
+public final class TextNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "lo", "los", "o", "para", "por", "sin", "un", "una", "y");
+
+    private TextNormalizer() {
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("");
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String word : SEPARATORS.split(fold(text))) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            tokens.add(stem(word));
+        }
+        return tokens;
+    }
+
+    private static String stem(String word) {
+        return word.length() > 3 && word.endsWith("s") ? word.substring(0, word.length() - 1) : word;
+    }
+}
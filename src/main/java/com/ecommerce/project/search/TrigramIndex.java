@@ -0,0 +1,204 @@
+package com.ecommerce.project.search;
+
+import java.util.*;
+
+/**
+ * Trigram index of product names for typo-tolerant lookups ("peperoni", "hawaina").
+ * Postings are plain int arrays of document numbers; a product that is updated or removed
+ * leaves a tombstone, and the index compacts itself once half of it is dead.
+ * Not thread-safe: ProductSearchIndex guards it with its own lock.
+ */
+final class TrigramIndex {
+
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private long[] productIds = new long[16];
+    private String[][] words = new String[16][];
+    private int[] trigramCounts = new int[16];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int deletedCount;
+
+    void add(Long productId, String productName) {
+        remove(productId);
+        String[] nameWords = words(productName);
+        long[] trigrams = trigrams(nameWords);
+        if (trigrams.length == 0) {
+            return;
+        }
+
+        if (docCount == productIds.length) {
+            int capacity = docCount * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            words = Arrays.copyOf(words, capacity);
+            trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+        }
+        int doc = docCount++;
+        productIds[doc] = productId;
+        words[doc] = nameWords;
+        trigramCounts[doc] = trigrams.length;
+        docByProduct.put(productId, doc);
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(doc);
+        }
+    }
+
+    void remove(Long productId) {
+        Integer doc = docByProduct.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        words[doc] = null;
+        if (++deletedCount > docCount / 2 && docCount > 64) {
+            compact();
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        docByProduct.clear();
+        deleted.clear();
+        docCount = 0;
+        deletedCount = 0;
+    }
+
+    /**
+     * Products whose names share enough trigrams with the query, and in which every query word is
+     * within a small edit distance of some name word. Best match first.
+     */
+    List<Long> search(String query) {
+        String[] queryWords = words(query);
+        long[] queryTrigrams = trigrams(queryWords);
+        if (queryTrigrams.length == 0) {
+            return List.of();
+        }
+
+        int[] overlap = new int[docCount];
+        for (long trigram : queryTrigrams) {
+            Postings list = postings.get(trigram);
+            if (list != null) {
+                for (int i = 0; i < list.size; i++) {
+                    overlap[list.docs[i]]++;
+                }
+            }
+        }
+
+        List<double[]> matches = new ArrayList<>();
+        for (int doc = 0; doc < docCount; doc++) {
+            if (overlap[doc] == 0 || deleted.get(doc)) {
+                continue;
+            }
+            double similarity = 2.0 * overlap[doc] / (queryTrigrams.length + trigramCounts[doc]);
+            if (similarity >= MIN_SIMILARITY && wordsWithinDistance(queryWords, words[doc])) {
+                matches.add(new double[]{similarity, doc});
+            }
+        }
+
+        matches.sort((a, b) -> Double.compare(b[0], a[0]));
+        List<Long> results = new ArrayList<>(matches.size());
+        for (double[] match : matches) {
+            results.add(productIds[(int) match[1]]);
+        }
+        return results;
+    }
+
+    private void compact() {
+        long[] liveIds = new long[docCount - deletedCount];
+        String[][] liveWords = new String[liveIds.length][];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (!deleted.get(doc)) {
+                liveIds[live] = productIds[doc];
+                liveWords[live] = words[doc];
+                live++;
+            }
+        }
+        clear();
+        for (int i = 0; i < live; i++) {
+            add(liveIds[i], String.join(" ", liveWords[i]));
+        }
+    }
+
+    private static boolean wordsWithinDistance(String[] queryWords, String[] nameWords) {
+        for (String queryWord : queryWords) {
+            int allowed = queryWord.length() <= 4 ? 1 : 2;
+            boolean found = false;
+            for (String nameWord : nameWords) {
+                if (boundedDistance(queryWord, nameWord, allowed) <= allowed) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Levenshtein distance, giving up as soon as it must exceed the bound.
+     */
+    static int boundedDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static String[] words(String text) {
+        return Arrays.stream(TextNormalizer.fold(text).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Distinct trigrams of the words, each padded like "  pe", " pep", ..., "ni " so short words
+     * and word starts still produce trigrams.
+     */
+    private static long[] trigrams(String[] words) {
+        Set<Long> unique = new LinkedHashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                unique.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+            }
+        }
+        return unique.stream().mapToLong(Long::longValue).toArray();
+    }
+}
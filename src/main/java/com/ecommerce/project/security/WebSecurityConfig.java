@@ -6,6 +6,7 @@ import com.ecommerce.project.model.User;
 import com.ecommerce.project.repositories.RoleRepository;
 import com.ecommerce.project.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,6 +28,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import com.ecommerce.project.security.jwt.AuthEntryPointJwt;
 import com.ecommerce.project.security.jwt.AuthTokenFilter;
+import com.ecommerce.project.security.ratelimit.RateLimitFilter;
 import com.ecommerce.project.security.services.UserDetailsServiceImpl;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -47,11 +49,21 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Value("${spring.app.bcryptStrength:10}")
+    private int bcryptStrength;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
     }
 
+    @Bean
+    public RateLimitFilter rateLimitFilter(@Value("${spring.app.rateLimitAuthPerMinute:10}") int authPerMinute,
+                                           @Value("${spring.app.rateLimitCartPerMinute:120}") int cartPerMinute,
+                                           @Value("${spring.app.rateLimitCheckoutPerMinute:10}") int checkoutPerMinute) {
+        return new RateLimitFilter(authPerMinute, cartPerMinute, checkoutPerMinute);
+    }
+
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
@@ -59,6 +71,8 @@ public class WebSecurityConfig {
 
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehashes stored passwords on the next successful login when bcryptStrength is raised
+        authProvider.setUserDetailsPasswordService(userDetailsService);
 
         return authProvider;
     }
@@ -71,7 +85,7 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -95,7 +109,7 @@ public class WebSecurityConfig {
         return source;
     }
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, RateLimitFilter rateLimitFilter) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
@@ -110,6 +124,7 @@ public class WebSecurityConfig {
                                     .requestMatchers("/api/test/**").permitAll()
                                     .requestMatchers("/images/**").permitAll()
                                     .requestMatchers("/api/products/**").permitAll()
+                                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                                     .requestMatchers("/api/admin/orders").hasRole("ADMIN")
                                     .requestMatchers("/api/admin/order/**").hasRole("ADMIN")
                                     .requestMatchers("/api/user/orders").authenticated()
@@ -118,6 +133,7 @@ public class WebSecurityConfig {
                     )
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, AuthTokenFilter.class)
                 .headers(headers -> headers.frameOptions(
                         frameOptions -> frameOptions.sameOrigin()
                 ));
@@ -1,6 +1,8 @@
 package com.ecommerce.project.security.jwt;
 
+import com.ecommerce.project.security.services.UserDetailsImpl;
 import com.ecommerce.project.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +10,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +29,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Value("${spring.app.jwtStatelessAuth:true}")
+    private boolean statelessAuth;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -33,10 +43,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         logger.debug("AuthTokenFilter called for URI: {}", request.getRequestURI());
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
+            if (claims != null && !tokenRevocationStore.isRevoked(claims)) {
+                UserDetails userDetails = loadUserDetails(claims, response);
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails,
@@ -55,6 +64,26 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails loadUserDetails(Claims claims, HttpServletResponse response) {
+        if (statelessAuth) {
+            UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+            if (userDetails != null) {
+                return userDetails;
+            }
+        }
+
+        String username = claims.getSubject();
+        UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+
+        if (statelessAuth && claims.getExpiration() != null) {
+            // Roles were re-read; the replacement keeps the original jti and expiry, so it cannot
+            // extend the session and is revoked together with the token it replaces
+            response.addHeader(HttpHeaders.SET_COOKIE,
+                    jwtUtils.generateRefreshedJwtCookie(userDetails, claims).toString());
+        }
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String jwt = jwtUtils.getJwtFromCookies(request);
         logger.debug("AuthTokenFilter.java: {}", jwt);
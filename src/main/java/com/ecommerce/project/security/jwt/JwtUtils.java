@@ -10,13 +10,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.WebUtils;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
@@ -31,6 +35,20 @@ public class JwtUtils {
     @Value("${spring.ecom.app.jwtCookieName}")
     private String jwtCookie;
 
+    @Value("${spring.app.jwtRolesTtlMs:300000}")
+    private long jwtRolesTtlMs;
+
+    @Value("${spring.app.jwtCacheSize:10000}")
+    private int jwtCacheSize;
+
+    private volatile SecretKey signingKey;
+
+    private volatile VerifiedTokenCache verifiedTokens;
+
+    private static final String CLAIM_USER_ID = "id";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLES = "roles";
+
     public String getJwtFromCookies(HttpServletRequest request) {
         Cookie cookie = WebUtils.getCookie(request, jwtCookie);
         if (cookie != null) {
@@ -41,7 +59,20 @@ public class JwtUtils {
     }
 
     public ResponseCookie generateJwtCookie(UserDetailsImpl userPrincipal) {
-        String jwt = generateTokenFromUsername(userPrincipal.getUsername());
+        String jwt = generateTokenFromUsername(userPrincipal);
+        return jwtCookie(jwt);
+    }
+
+    /**
+     * Same token with freshly loaded roles. The jti and the expiry are copied from the original,
+     * so the replacement never outlives it and is revoked together with it at signout.
+     */
+    public ResponseCookie generateRefreshedJwtCookie(UserDetailsImpl userPrincipal, Claims original) {
+        String jwt = buildToken(userPrincipal, original.getId(), original.getExpiration());
+        return jwtCookie(jwt);
+    }
+
+    private ResponseCookie jwtCookie(String jwt) {
         ResponseCookie cookie = ResponseCookie.from(jwtCookie, jwt)
                 .path("/api")
                 .maxAge(24 * 60 * 60)
@@ -58,30 +89,105 @@ public class JwtUtils {
         return cookie;
     }
 
-    public String generateTokenFromUsername(String username) {
+    public String generateTokenFromUsername(UserDetailsImpl userPrincipal) {
+        return buildToken(userPrincipal, UUID.randomUUID().toString(),
+                new Date((new Date()).getTime() + jwtExpirationMs));
+    }
+
+    private String buildToken(UserDetailsImpl userPrincipal, String jti, Date expiration) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
         return Jwts.builder()
-                .subject(username)
+                .id(jti)
+                .subject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLES, roles)
                 .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .expiration(expiration)
                 .signWith(key())
                 .compact();
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                        .verifyWith((SecretKey) key())
-                .build().parseSignedClaims(token)
-                .getPayload().getSubject();
+        Claims claims = parseJwtToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    /**
+     * Builds the principal straight from the signed claims, so the request does not
+     * need to load the user and its roles from the database.
+     * Returns null for tokens issued before the claims were added, or whose roles are
+     * older than spring.app.jwtRolesTtlMs; the caller then has to reload the user.
+     */
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Number id = claims.get(CLAIM_USER_ID, Number.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (id == null || roles == null) {
+            return null;
+        }
+
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null || System.currentTimeMillis() - issuedAt.getTime() > jwtRolesTtlMs) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+
+        return new UserDetailsImpl(id.longValue(),
+                claims.getSubject(),
+                claims.get(CLAIM_EMAIL, String.class),
+                null,
+                authorities);
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    private SecretKey key() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private VerifiedTokenCache verifiedTokens() {
+        VerifiedTokenCache cache = verifiedTokens;
+        if (cache == null) {
+            cache = new VerifiedTokenCache(jwtCacheSize);
+            verifiedTokens = cache;
+        }
+        return cache;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.jwtCacheSweepMs:60000}",
+            initialDelayString = "${spring.app.jwtCacheSweepMs:60000}")
+    public void evictExpiredTokens() {
+        VerifiedTokenCache cache = verifiedTokens;
+        if (cache != null) {
+            cache.evictExpired();
+        }
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseJwtToken(authToken) != null;
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null when the token is not valid.
+     * Tokens already verified are answered from the cache until they expire.
+     */
+    public Claims parseJwtToken(String authToken) {
         try {
-            Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(authToken);
-            return true;
+            Claims claims = verifiedTokens().get(authToken);
+            if (claims == null) {
+                claims = Jwts.parser().verifyWith(key()).build().parseSignedClaims(authToken).getPayload();
+                verifiedTokens().put(authToken, claims);
+            }
+            return claims;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -90,7 +196,9 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT signature is invalid: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,295 @@
+package com.ecommerce.project.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token ids (jti) revoked at signout, each kept until the token itself expires.
+ * A Bloom filter answers the common "never revoked" case without touching the map.
+ * Capacity defaults to twice the signouts expected over one token lifetime
+ * (jwtSignoutsPerMinute x jwtExpirationMs) and the map never grows past it. A signout that finds
+ * the map full of live entries falls back to a per-user cutoff instead: every token of that user
+ * issued up to now is rejected, so the user is signed out everywhere. There is at most one cutoff
+ * per user and each is dropped one token lifetime later, so nothing here can be exhausted by
+ * signing out repeatedly, and logins are never refused.
+ * The store is saved to a small file every jwtRevocationSaveMs when it changed, and on
+ * shutdown, so revocations survive a restart without a signout ever waiting on disk.
+ */
+@Component
+public class TokenRevocationStore {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ENTRY = 10;
+
+    private static final long PURGE_INTERVAL_MS = 1000;
+
+    // 0 derives it from the token lifetime and the expected signout rate
+    @Value("${spring.app.jwtRevocationCapacity:0}")
+    private int capacity;
+
+    @Value("${spring.app.jwtSignoutsPerMinute:1000}")
+    private int signoutsPerMinute;
+
+    @Value("${spring.app.jwtExpirationMs:3000000}")
+    private long tokenTtlMs;
+
+    @Value("${spring.app.jwtRevocationFile:revoked-tokens.dat}")
+    private String snapshotFile;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    // Username -> tokens issued at or before this time are revoked
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Object saveLock = new Object();
+    private volatile long lastPurgeAt;
+
+    private volatile AtomicLongArray bloom;
+
+    @PostConstruct
+    public void init() {
+        if (capacity <= 0) {
+            long lifetimeMinutes = Math.max(1, (tokenTtlMs + 59_999) / 60_000);
+            capacity = (int) Math.min(Integer.MAX_VALUE, 2L * signoutsPerMinute * lifetimeMinutes);
+        }
+        bloom = new AtomicLongArray(bloomWords());
+        loadSnapshot();
+        if (meterRegistry != null) {
+            Gauge.builder("jwt.revocation.entries", revoked, Map::size)
+                    .description("Revoked tokens that have not expired yet")
+                    .register(meterRegistry);
+            Gauge.builder("jwt.revocation.memory", this, TokenRevocationStore::estimatedBytes)
+                    .description("Approximate heap used by the revocation store")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("jwt.revocation.cutoffs", revokedBefore, Map::size)
+                    .description("Users signed out everywhere because the store was full")
+                    .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        saveIfDirty();
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.jwtRevocationSaveMs:5000}",
+            initialDelayString = "${spring.app.jwtRevocationSaveMs:5000}")
+    public void saveIfDirty() {
+        long now = System.currentTimeMillis();
+        // Tokens issued before a cutoff have all expired one token lifetime later
+        if (revokedBefore.values().removeIf(cutoff -> cutoff + tokenTtlMs <= now)) {
+            dirty.set(true);
+        }
+        // A separate lock from the one revoke() takes, so signouts never wait for the file
+        synchronized (saveLock) {
+            if (dirty.compareAndSet(true, false)) {
+                saveSnapshot();
+            }
+        }
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (!revokedBefore.isEmpty() && claims.getSubject() != null) {
+            Long cutoff = revokedBefore.get(claims.getSubject());
+            // iat only has second precision, so a token from the cutoff's own second counts as before it
+            Date issuedAt = claims.getIssuedAt();
+            if (cutoff != null && (issuedAt == null || issuedAt.getTime() <= cutoff)) {
+                return true;
+            }
+        }
+        String jti = claims.getId();
+        if (jti == null || !mightContain(bloom, jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        long now = System.currentTimeMillis();
+        if (jti == null || claims.getExpiration() == null || claims.getExpiration().getTime() <= now) {
+            return;
+        }
+        synchronized (this) {
+            if (revoked.size() >= capacity) {
+                purge();
+            }
+            if (revoked.size() < capacity) {
+                revoked.put(jti, claims.getExpiration().getTime());
+                add(bloom, jti);
+            } else {
+                if (revokedBefore.isEmpty()) {
+                    logger.warn("Token revocation store is full ({} live entries); signing users out everywhere",
+                            revoked.size());
+                }
+                revokedBefore.put(claims.getSubject(), now);
+            }
+        }
+        dirty.set(true);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    public int cutoffs() {
+        return revokedBefore.size();
+    }
+
+    public long estimatedBytes() {
+        // 8 bytes per Bloom word, plus a UUID jti or a username, a Long and the map node per entry
+        return bloom.length() * 8L + (revoked.size() + revokedBefore.size()) * 160L;
+    }
+
+    /**
+     * Drops expired entries and rebuilds the Bloom filter, since its bits cannot be cleared one by one.
+     * While the store stays full this runs at most once per PURGE_INTERVAL_MS; signouts in between
+     * fall back to a per-user cutoff.
+     */
+    private void purge() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeAt < PURGE_INTERVAL_MS) {
+            return;
+        }
+        lastPurgeAt = now;
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        AtomicLongArray rebuilt = new AtomicLongArray(bloomWords());
+        revoked.keySet().forEach(jti -> add(rebuilt, jti));
+        bloom = rebuilt;
+    }
+
+    private int bloomWords() {
+        long bits = Math.max(64L, (long) capacity * BITS_PER_ENTRY);
+        return (int) ((bits + 63) / 64);
+    }
+
+    private static void add(AtomicLongArray bits, String jti) {
+        long size = bits.length() * 64L;
+        int h1 = jti.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, size);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private static boolean mightContain(AtomicLongArray bits, String jti) {
+        long size = bits.length() * 64L;
+        int h1 = jti.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, size);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+
+    private void loadSnapshot() {
+        Path path = Path.of(snapshotFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String jti = in.readUTF();
+                long expiresAt = in.readLong();
+                if (expiresAt > now && revoked.size() < capacity) {
+                    revoked.put(jti, expiresAt);
+                    add(bloom, jti);
+                }
+            }
+            try {
+                int cutoffs = in.readInt();
+                for (int i = 0; i < cutoffs; i++) {
+                    String username = in.readUTF();
+                    long cutoff = in.readLong();
+                    if (cutoff + tokenTtlMs > now) {
+                        revokedBefore.put(username, cutoff);
+                    }
+                }
+            } catch (EOFException e) {
+                // Written before user cutoffs existed
+            }
+            logger.info("Loaded {} revoked tokens and {} user cutoffs from {}", revoked.size(), revokedBefore.size(), path);
+        } catch (IOException e) {
+            logger.error("Cannot read token revocation snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void saveSnapshot() {
+        Path path = Path.of(snapshotFile).toAbsolutePath();
+        long now = System.currentTimeMillis();
+        Map<String, Long> live = Map.copyOf(revoked);
+        Map<String, Long> cutoffs = Map.copyOf(revokedBefore);
+        try {
+            Path tmp = Files.createTempFile(path.getParent(), "revoked-tokens", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt((int) live.values().stream().filter(expiresAt -> expiresAt > now).count());
+                for (Map.Entry<String, Long> entry : live.entrySet()) {
+                    if (entry.getValue() > now) {
+                        out.writeUTF(entry.getKey());
+                        out.writeLong(entry.getValue());
+                    }
+                }
+                out.writeInt(cutoffs.size());
+                for (Map.Entry<String, Long> entry : cutoffs.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Cannot write token revocation snapshot {}: {}", path, e.getMessage());
+            dirty.set(true);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.project.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Claims of tokens whose signature was already checked, keyed by a SHA-256 digest of the token.
+ * Expired entries are swept by {@link #evictExpired()} on a schedule. At maxEntries, the oldest
+ * entries by insertion are dropped so the new token is still admitted; a miss never scans the cache.
+ */
+class VerifiedTokenCache {
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+
+    // Evicting at capacity gives up after this many stale queue elements, whatever the cache size
+    private static final int MAX_EVICTION_ATTEMPTS = 16;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Insertion order of the digests; may still hold some that were removed in the meantime
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    Claims get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String digest = digest(token);
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(digest, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (maxEntries <= 0 || expiration == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictOldest();
+        }
+        String digest = digest(token);
+        if (entries.put(digest, new Entry(claims, expiration.getTime())) == null) {
+            insertionOrder.offer(digest);
+        }
+    }
+
+    void evict(String token) {
+        entries.remove(digest(token));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Full sweep, run from a scheduled task rather than on the request path.
+     */
+    void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        insertionOrder.removeIf(digest -> !entries.containsKey(digest));
+    }
+
+    private void evictOldest() {
+        for (int i = 0; i < MAX_EVICTION_ATTEMPTS; i++) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null || entries.remove(oldest) != null) {
+                return;
+            }
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
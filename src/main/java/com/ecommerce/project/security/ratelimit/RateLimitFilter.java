@@ -0,0 +1,95 @@
+package com.ecommerce.project.security.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits signin/signup/signout, cart and checkout calls per client IP and, once authenticated, per user.
+ * Runs after AuthTokenFilter and rejects with 429 before any controller or repository is reached.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"message\":\"Too many requests, please try again later\",\"status\":false}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final RateLimiter authLimiter;
+    private final RateLimiter cartLimiter;
+    private final RateLimiter checkoutLimiter;
+
+    public RateLimitFilter(int authPerMinute, int cartPerMinute, int checkoutPerMinute) {
+        this.authLimiter = new RateLimiter(authPerMinute);
+        this.cartLimiter = new RateLimiter(cartPerMinute);
+        this.checkoutLimiter = new RateLimiter(checkoutPerMinute);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimiter limiter = limiterFor(request);
+        if (limiter != null) {
+            long waitNanos = limiter.tryAcquire("ip:" + request.getRemoteAddr());
+
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (waitNanos == 0 && authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                waitNanos = limiter.tryAcquire("user:" + authentication.getName());
+            }
+
+            if (waitNanos > 0) {
+                logger.debug("Rate limit exceeded for URI: {}", request.getRequestURI());
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.rateLimitSweepMs:60000}",
+            initialDelayString = "${spring.app.rateLimitSweepMs:60000}")
+    public void sweepIdle() {
+        authLimiter.sweepIdle();
+        cartLimiter.sweepIdle();
+        checkoutLimiter.sweepIdle();
+    }
+
+    private RateLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (pathMatcher.match("/api/auth/signin", path) || pathMatcher.match("/api/auth/signup", path)
+                || pathMatcher.match("/api/auth/signout", path)) {
+            return authLimiter;
+        }
+        if (pathMatcher.match("/api/carts/products/**", path) || pathMatcher.match("/api/cart/products/**", path)) {
+            return cartLimiter;
+        }
+        if (pathMatcher.match("/api/order/users/payments/**", path)) {
+            return checkoutLimiter;
+        }
+        return null;
+    }
+}
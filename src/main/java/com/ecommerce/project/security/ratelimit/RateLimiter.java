@@ -0,0 +1,68 @@
+package com.ecommerce.project.security.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets keyed by client, refilled continuously. Each bucket only locks itself, and
+ * {@link #sweepIdle()} drops buckets that stayed idle long enough to be full again; it is called
+ * on a schedule, never from a request.
+ */
+public class RateLimiter {
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleNanos;
+
+    public RateLimiter(int requestsPerMinute) {
+        this.capacity = requestsPerMinute;
+        this.tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.idleNanos = TimeUnit.MINUTES.toNanos(1);
+    }
+
+    /**
+     * Takes one token for the key.
+     * Returns 0 when the call is allowed, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        synchronized (bucket) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefill) * tokensPerNano);
+            bucket.lastRefill = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public void sweepIdle() {
+        sweepIdle(System.nanoTime());
+    }
+
+    void sweepIdle(long now) {
+        buckets.values().removeIf(bucket -> {
+            synchronized (bucket) {
+                return now - bucket.lastRefill >= idleNanos;
+            }
+        });
+    }
+}
@@ -1,12 +1,12 @@
 package com.ecommerce.project.service;
 
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.mapper.AddressMapper;
 import com.ecommerce.project.model.Address;
 import com.ecommerce.project.model.User;
 import com.ecommerce.project.payload.AddressDTO;
 import com.ecommerce.project.repositories.AddressRepository;
 import com.ecommerce.project.repositories.UserRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -17,28 +17,25 @@ public class AddressServiceImpl implements AddressService{
     @Autowired
     private AddressRepository addressRepository;
 
-    @Autowired
-    private ModelMapper modelMapper;
-
     @Autowired
     UserRepository userRepository;
 
     @Override
     public AddressDTO createAddress(AddressDTO addressDTO, User user) {
-        Address address = modelMapper.map(addressDTO, Address.class);
+        Address address = AddressMapper.toEntity(addressDTO);
         address.setUser(user);
         List<Address> addressesList = user.getAddresses();
         addressesList.add(address);
         user.setAddresses(addressesList);
         Address savedAddress = addressRepository.save(address);
-        return modelMapper.map(savedAddress, AddressDTO.class);
+        return AddressMapper.toDTO(savedAddress);
     }
 
     @Override
     public List<AddressDTO> getAddresses() {
         List<Address> addresses = addressRepository.findAll();
         return addresses.stream()
-                .map(address -> modelMapper.map(address, AddressDTO.class))
+                .map(AddressMapper::toDTO)
                 .toList();
     }
 
@@ -46,14 +43,14 @@ public class AddressServiceImpl implements AddressService{
     public AddressDTO getAddressesById(Long addressId) {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", addressId));
-        return modelMapper.map(address, AddressDTO.class);
+        return AddressMapper.toDTO(address);
     }
 
     @Override
     public List<AddressDTO> getUserAddresses(User user) {
         List<Address> addresses = user.getAddresses();
         return addresses.stream()
-                .map(address -> modelMapper.map(address, AddressDTO.class))
+                .map(AddressMapper::toDTO)
                 .toList();
     }
 
@@ -76,7 +73,7 @@ public class AddressServiceImpl implements AddressService{
         user.getAddresses().add(updatedAddress);
         userRepository.save(user);
 
-        return modelMapper.map(updatedAddress, AddressDTO.class);
+        return AddressMapper.toDTO(updatedAddress);
     }
 
     @Override
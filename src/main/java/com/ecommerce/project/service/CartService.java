@@ -3,6 +3,7 @@ package com.ecommerce.project.service;
 import com.ecommerce.project.payload.CartDTO;
 import jakarta.transaction.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CartService {
@@ -12,10 +13,19 @@ public interface CartService {
 
     CartDTO getCart(String emailId, Long cartId);
 
+    CartDTO getUserCart(String emailId);
+
     @Transactional
     CartDTO updateProductQuantityInCart(Long productId, Integer quantity);
 
     String deleteProductFromCart(Long cartId, Long productId);
 
-    void updateProductInCarts(Long cartId, Long productId);
+    @Transactional
+    int repriceProductInCarts(Long productId, double specialPrice, double discount);
+
+    @Transactional
+    int repriceProductsInCarts(Collection<Long> productIds);
+
+    @Transactional
+    int repriceCategoryInCarts(Long categoryId);
 }
@@ -2,23 +2,21 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.mapper.CartMapper;
 import com.ecommerce.project.model.Cart;
 import com.ecommerce.project.model.CartItem;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.payload.CartDTO;
-import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.repositories.CartItemRepository;
 import com.ecommerce.project.repositories.CartRepository;
 import com.ecommerce.project.repositories.ProductRepository;
 import com.ecommerce.project.util.AuthUtil;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class CartServiceImpl implements CartService{
@@ -34,9 +32,7 @@ public class CartServiceImpl implements CartService{
     @Autowired
     CartItemRepository cartItemRepository;
 
-    @Autowired
-    ModelMapper modelMapper;
-
+    @Transactional
     @Override
     public CartDTO addProductToCart(Long productId, Integer quantity) {
         Cart cart  = createCart();
@@ -44,7 +40,7 @@ public class CartServiceImpl implements CartService{
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(cart.getCartId(), productId);
+        CartItem cartItem = findLine(cart, productId);
 
         if (cartItem != null) {
             throw new APIException("Product " + product.getProductName() + " already exists in the cart");
@@ -68,6 +64,7 @@ public class CartServiceImpl implements CartService{
         newCartItem.setProductPrice(product.getSpecialPrice());
 
         cartItemRepository.save(newCartItem);
+        cart.getCartItems().add(newCartItem);
 
         product.setQuantity(product.getQuantity());
 
@@ -75,46 +72,18 @@ public class CartServiceImpl implements CartService{
 
         cartRepository.save(cart);
 
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-        List<CartItem> cartItems = cart.getCartItems();
-
-        Stream<ProductDTO> productStream = cartItems.stream().map(item -> {
-            ProductDTO map = modelMapper.map(item.getProduct(), ProductDTO.class);
-            map.setQuantity(item.getQuantity());
-            return map;
-        });
-
-        cartDTO.setProducts(productStream.toList());
-
-        return cartDTO;
+        return CartMapper.toDTO(cart);
     }
 
     @Override
     public List<CartDTO> getAllCarts() {
-        List<Cart> carts = cartRepository.findAll();
+        List<Cart> carts = cartRepository.findAllWithItems();
 
         if (carts.size() == 0) {
             throw new APIException("No cart exists");
         }
 
-        List<CartDTO> cartDTOs = carts.stream().map(cart -> {
-            CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-            List<ProductDTO> products = cart.getCartItems().stream().map(cartItem -> {
-                ProductDTO productDTO = modelMapper.map(cartItem.getProduct(), ProductDTO.class);
-                productDTO.setQuantity(cartItem.getQuantity()); // Set the quantity from CartItem
-                return productDTO;
-            }).collect(Collectors.toList());
-
-
-            cartDTO.setProducts(products);
-
-            return cartDTO;
-
-        }).collect(Collectors.toList());
-
-        return cartDTOs;
+        return carts.stream().map(CartMapper::toDTO).toList();
     }
 
     @Override
@@ -123,14 +92,16 @@ public class CartServiceImpl implements CartService{
         if (cart == null){
             throw new ResourceNotFoundException("Cart", "cartId", cartId);
         }
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-        cart.getCartItems().forEach(c ->
-                c.getProduct().setQuantity(c.getQuantity()));
-        List<ProductDTO> products = cart.getCartItems().stream()
-                .map(p -> modelMapper.map(p.getProduct(), ProductDTO.class))
-                .toList();
-        cartDTO.setProducts(products);
-        return cartDTO;
+        return CartMapper.toDTO(cart);
+    }
+
+    @Override
+    public CartDTO getUserCart(String emailId) {
+        Cart cart = cartRepository.findCartByEmail(emailId);
+        if (cart == null) {
+            throw new ResourceNotFoundException("Cart", "email", emailId);
+        }
+        return CartMapper.toDTO(cart);
     }
 
     @Transactional
@@ -138,11 +109,10 @@ public class CartServiceImpl implements CartService{
     public CartDTO updateProductQuantityInCart(Long productId, Integer quantity) {
 
         String emailId = authUtil.loggedInEmail();
-        Cart userCart = cartRepository.findCartByEmail(emailId);
-        Long cartId  = userCart.getCartId();
-
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
+        Cart cart = cartRepository.findCartByEmail(emailId);
+        if (cart == null) {
+            throw new ResourceNotFoundException("Cart", "email", emailId);
+        }
 
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
@@ -156,7 +126,7 @@ public class CartServiceImpl implements CartService{
                     + " less than or equal to the quantity " + product.getQuantity() + ".");
         }
 
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(cartId, productId);
+        CartItem cartItem = findLine(cart, productId);
 
         if (cartItem == null) {
             throw new APIException("Product " + product.getProductName() + " not available in the cart!!!");
@@ -171,35 +141,28 @@ public class CartServiceImpl implements CartService{
         }
 
         if (newQuantity == 0){
-            deleteProductFromCart(cartId, productId);
+            // Orphan removal deletes the line on commit and keeps the loaded cart accurate for the response
+            cart.setTotalPrice(cart.getTotalPrice() - (cartItem.getProductPrice() * cartItem.getQuantity()));
+            cart.getCartItems().remove(cartItem);
         } else {
             cartItem.setProductPrice(product.getSpecialPrice());
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
+            cartItem.setQuantity(newQuantity);
             cartItem.setDiscount(product.getDiscount());
             cart.setTotalPrice(cart.getTotalPrice() + (cartItem.getProductPrice() * quantity));
-            cartRepository.save(cart);
-        }
-
-        CartItem updatedItem = cartItemRepository.save(cartItem);
-        if(updatedItem.getQuantity() == 0){
-            cartItemRepository.deleteById(updatedItem.getCartItemId());
         }
+        cartRepository.save(cart);
 
+        return CartMapper.toDTO(cart);
+    }
 
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-        List<CartItem> cartItems = cart.getCartItems();
-
-        Stream<ProductDTO> productStream = cartItems.stream().map(item -> {
-            ProductDTO prd = modelMapper.map(item.getProduct(), ProductDTO.class);
-            prd.setQuantity(item.getQuantity());
-            return prd;
-        });
-
-
-        cartDTO.setProducts(productStream.toList());
-
-        return cartDTO;
+    // Lines and products come with the cart's entity graph, so this needs no query
+    private static CartItem findLine(Cart cart, Long productId) {
+        for (CartItem item : cart.getCartItems()) {
+            if (item.getProduct().getProductId().equals(productId)) {
+                return item;
+            }
+        }
+        return null;
     }
 
 
@@ -240,28 +203,34 @@ public class CartServiceImpl implements CartService{
 
 
     @Override
-    public void updateProductInCarts(Long cartId, Long productId) {
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
-
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(cartId, productId);
-
-        if (cartItem == null) {
-            throw new APIException("Product " + product.getProductName() + " not available in the cart!!!");
+    @Transactional
+    public int repriceProductInCarts(Long productId, double specialPrice, double discount) {
+        // Two statements however many carts hold the product: reprice the lines, then re-total those carts
+        int updatedItems = cartItemRepository.repriceByProductId(productId, specialPrice, discount);
+        if (updatedItems > 0) {
+            cartRepository.recomputeTotalsForProduct(productId);
         }
+        return updatedItems;
+    }
 
-        double cartPrice = cart.getTotalPrice()
-                - (cartItem.getProductPrice() * cartItem.getQuantity());
-
-        cartItem.setProductPrice(product.getSpecialPrice());
-
-        cart.setTotalPrice(cartPrice
-                + (cartItem.getProductPrice() * cartItem.getQuantity()));
+    @Override
+    @Transactional
+    public int repriceProductsInCarts(Collection<Long> productIds) {
+        int updatedItems = cartItemRepository.repriceByProductIds(productIds);
+        if (updatedItems > 0) {
+            cartRepository.recomputeTotalsForProducts(productIds);
+        }
+        return updatedItems;
+    }
 
-        cartItem = cartItemRepository.save(cartItem);
+    @Override
+    @Transactional
+    public int repriceCategoryInCarts(Long categoryId) {
+        int updatedItems = cartItemRepository.repriceByCategoryId(categoryId);
+        if (updatedItems > 0) {
+            cartRepository.recomputeTotalsForCategory(categoryId);
+        }
+        return updatedItems;
     }
 
 }
@@ -0,0 +1,578 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.repositories.CartRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import com.ecommerce.project.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind store for active carts, switched on with spring.app.cartStoreEnabled=true.
+ * Carts are loaded once, kept in lock-striped shards keyed by user id and changed in memory;
+ * a background flusher writes the dirty ones to carts/cart_items in one batch per round and
+ * drops carts idle for longer than spring.app.cartIdleMs.
+ * Anything that reads carts from the database (checkout, product deletion, the admin listing)
+ * flushes the carts it needs first, and shutdown flushes everything.
+ * Flushes are serialized and snapshot the carts while holding the flush lock, so an older
+ * state can never overwrite a newer one. A cart whose checkout is in progress is never written:
+ * a copy reloaded meanwhile may come from rows the order is about to delete. Likewise a cart
+ * held for a reprice is neither written nor dropped until the repricing transaction ends.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.app.cartStoreEnabled", havingValue = "true")
+public class CartStore {
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+
+    private static final int BATCH_SIZE = 200;
+
+    public record Line(Long productId, int quantity, double discount, double productPrice) {
+    }
+
+    public record Snapshot(Long cartId, double totalPrice, List<Line> lines) {
+    }
+
+    /**
+     * A resident cart. Only touched while holding the lock of its shard.
+     */
+    public static final class CartState {
+        private final Long userId;
+        private final String email;
+        private final Long cartId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private double totalPrice;
+        private boolean dirty;
+        private long lastAccess;
+        // Reprices in progress that hold this cart back from flushes
+        private int repriceHolds;
+
+        private CartState(Long userId, String email, Long cartId, double totalPrice) {
+            this.userId = userId;
+            this.email = email;
+            this.cartId = cartId;
+            this.totalPrice = totalPrice;
+        }
+
+        public Line line(Long productId) {
+            return lines.get(productId);
+        }
+
+        public void putLine(Line line) {
+            lines.put(line.productId(), line);
+            dirty = true;
+        }
+
+        public void removeLine(Long productId) {
+            lines.remove(productId);
+            dirty = true;
+        }
+
+        public double getTotalPrice() {
+            return totalPrice;
+        }
+
+        public void setTotalPrice(double totalPrice) {
+            this.totalPrice = totalPrice;
+            dirty = true;
+        }
+
+        private Snapshot snapshot() {
+            return new Snapshot(cartId, totalPrice, List.copyOf(lines.values()));
+        }
+    }
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, CartState> carts = new HashMap<>();
+    }
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.app.cartStoreShards:64}")
+    private int shardCount;
+
+    @Value("${spring.app.cartFlushMs:500}")
+    private long flushMs;
+
+    @Value("${spring.app.cartIdleMs:600000}")
+    private long idleMs;
+
+    private Shard[] shards;
+    private TransactionTemplate writeTransaction;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+    private final Map<Long, Long> userIdsByCartId = new ConcurrentHashMap<>();
+    // Checkouts in progress per email; only changed while holding flushLock
+    private final Map<String, Integer> checkouts = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        // Callers flush outside their own transactions (see beginCheckout), so a flush never
+        // needs a second pooled connection next to the caller's
+        writeTransaction = new TransactionTemplate(transactionManager);
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flushRound(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                logger.error("Cannot flush carts: {}", e.getMessage());
+            }
+        }, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+    }
+
+    /**
+     * Applies a change to the user's cart under its shard lock, loading the cart first if it is
+     * not resident. Without a cart in the database, one is created when {@code create} is set;
+     * otherwise nothing is applied and null is returned.
+     */
+    public Snapshot apply(Long userId, String email, boolean create, Consumer<CartState> change) {
+        Shard shard = shardOf(userId);
+        shard.lock.lock();
+        try {
+            CartState cart = shard.carts.get(userId);
+            if (cart == null) {
+                cart = load(userId, email, create);
+                if (cart == null) {
+                    return null;
+                }
+                shard.carts.put(userId, cart);
+                userIdsByEmail.put(email, userId);
+                userIdsByCartId.put(cart.cartId, userId);
+            }
+            cart.lastAccess = System.currentTimeMillis();
+            change.accept(cart);
+            return cart.snapshot();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #apply} for a cart that is already resident; returns null when it is not.
+     */
+    public Snapshot applyIfResident(Long cartId, Consumer<CartState> change) {
+        Long userId = userIdsByCartId.get(cartId);
+        if (userId == null) {
+            return null;
+        }
+        Shard shard = shardOf(userId);
+        shard.lock.lock();
+        try {
+            CartState cart = shard.carts.get(userId);
+            if (cart == null || !cart.cartId.equals(cartId)) {
+                return null;
+            }
+            cart.lastAccess = System.currentTimeMillis();
+            change.accept(cart);
+            return cart.snapshot();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public Snapshot residentCart(String email) {
+        Long userId = userIdsByEmail.get(email);
+        if (userId == null) {
+            return null;
+        }
+        Shard shard = shardOf(userId);
+        shard.lock.lock();
+        try {
+            CartState cart = shard.carts.get(userId);
+            return cart != null ? cart.snapshot() : null;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the user's cart and drops it from memory, so the checkout reads it from the database,
+     * then holds back any flush of that cart until {@link #endCheckout}. Call it before the order
+     * transaction starts: the write commits on a connection of its own.
+     */
+    public void beginCheckout(String email) {
+        flushLock.lock();
+        try {
+            if (checkouts.merge(email, 1, Integer::sum) == 1) {
+                Long userId = userIdsByEmail.get(email);
+                if (userId != null) {
+                    Shard shard = shardOf(userId);
+                    shard.lock.lock();
+                    try {
+                        CartState cart = shard.carts.get(userId);
+                        if (cart != null && cart.dirty) {
+                            write(List.of(cart.snapshot()));
+                            cart.dirty = false;
+                        }
+                        remove(shard, userId);
+                    } finally {
+                        shard.lock.unlock();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            checkouts.computeIfPresent(email, (key, count) -> count > 1 ? count - 1 : null);
+            throw e;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * After a placed order the database cart is empty, so a copy reloaded during the checkout is
+     * discarded unwritten. After a failed one it is still valid and is flushed as usual.
+     */
+    public void endCheckout(String email, boolean placed) {
+        flushLock.lock();
+        try {
+            if (placed) {
+                Long userId = userIdsByEmail.get(email);
+                if (userId != null) {
+                    Shard shard = shardOf(userId);
+                    shard.lock.lock();
+                    try {
+                        remove(shard, userId);
+                    } finally {
+                        shard.lock.unlock();
+                    }
+                }
+            }
+            checkouts.computeIfPresent(email, (key, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes and drops every resident cart holding one of the products, for writes that change
+     * or delete those lines in the database directly.
+     */
+    public void evictCartsWithProducts(Collection<Long> productIds) {
+        List<Long> userIds = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (CartState cart : shard.carts.values()) {
+                    if (productIds.stream().anyMatch(cart.lines::containsKey)) {
+                        userIds.add(cart.userId);
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        userIds.forEach(this::evict);
+    }
+
+    /**
+     * Called inside a reprice transaction before its UPDATEs. Resident carts holding one of the
+     * products are marked under the flush lock, and from then on they are neither flushed nor
+     * dropped as idle until the transaction ends; otherwise a flush could write their old prices
+     * over the repriced rows and drop the cart before {@link #repriceResident} reaches it.
+     */
+    public void holdForReprice(Collection<Long> productIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<CartState> held = new ArrayList<>();
+        flushLock.lock();
+        try {
+            for (Shard shard : shards) {
+                shard.lock.lock();
+                try {
+                    for (CartState cart : shard.carts.values()) {
+                        if (productIds.stream().anyMatch(cart.lines::containsKey)) {
+                            cart.repriceHolds++;
+                            held.add(cart);
+                        }
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        if (held.isEmpty()) {
+            return;
+        }
+        // afterCompletion runs after every afterCommit, so the new prices are in place by then
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (CartState cart : held) {
+                    Shard shard = shardOf(cart.userId);
+                    shard.lock.lock();
+                    try {
+                        cart.repriceHolds--;
+                    } finally {
+                        shard.lock.unlock();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Puts the new price on the resident lines of a product once the database reprice commits,
+     * and marks them dirty so the next round writes them.
+     */
+    public void repriceResident(Long productId, double specialPrice, double discount) {
+        AfterCommit.run(() -> {
+            for (Shard shard : shards) {
+                shard.lock.lock();
+                try {
+                    for (CartState cart : shard.carts.values()) {
+                        Line line = cart.line(productId);
+                        if (line != null) {
+                            cart.putLine(new Line(productId, line.quantity(), discount, specialPrice));
+                            cart.setTotalPrice(cart.lines.values().stream()
+                                    .mapToDouble(l -> l.productPrice() * l.quantity()).sum());
+                        }
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        });
+    }
+
+    public void flushAll() {
+        flush(dirtyCarts());
+    }
+
+    void flushRound(long now) {
+        flush(dirtyCarts());
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                List<Long> idle = shard.carts.values().stream()
+                        .filter(cart -> !cart.dirty && cart.repriceHolds == 0 && cart.lastAccess < now - idleMs)
+                        .map(cart -> cart.userId)
+                        .toList();
+                idle.forEach(userId -> remove(shard, userId));
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    int residentCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                count += shard.carts.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    private void flush(Collection<CartState> carts) {
+        flushLock.lock();
+        try {
+            Map<CartState, Snapshot> snapshots = new LinkedHashMap<>();
+            for (CartState cart : carts) {
+                Shard shard = shardOf(cart.userId);
+                shard.lock.lock();
+                try {
+                    if (cart.dirty && cart.repriceHolds == 0 && !checkouts.containsKey(cart.email)) {
+                        snapshots.put(cart, cart.snapshot());
+                        cart.dirty = false;
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+            if (snapshots.isEmpty()) {
+                return;
+            }
+            try {
+                write(snapshots.values());
+            } catch (RuntimeException batchFailure) {
+                // Find the cart that broke the batch and write the others one by one
+                snapshots.forEach(this::writeOne);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeOne(CartState cart, Snapshot snapshot) {
+        try {
+            write(List.of(snapshot));
+        } catch (DataIntegrityViolationException e) {
+            // Typically a product deleted under the cart; the database copy wins
+            logger.error("Dropping cart {} that cannot be written: {}", snapshot.cartId(), e.getMessage());
+            Shard shard = shardOf(cart.userId);
+            shard.lock.lock();
+            try {
+                remove(shard, cart.userId);
+            } finally {
+                shard.lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Cannot write cart {}, retrying on the next round: {}", snapshot.cartId(), e.getMessage());
+            Shard shard = shardOf(cart.userId);
+            shard.lock.lock();
+            try {
+                cart.dirty = true;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    private void evict(Long userId) {
+        flushLock.lock();
+        try {
+            Shard shard = shardOf(userId);
+            shard.lock.lock();
+            try {
+                CartState cart = shard.carts.get(userId);
+                if (cart == null) {
+                    return;
+                }
+                if (cart.dirty && !checkouts.containsKey(cart.email)) {
+                    write(List.of(cart.snapshot()));
+                    cart.dirty = false;
+                }
+                remove(shard, userId);
+            } finally {
+                shard.lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // One transaction and three batches for the whole round: lines are replaced, totals updated
+    private void write(Collection<Snapshot> snapshots) {
+        List<Object[]> lines = new ArrayList<>();
+        for (Snapshot snapshot : snapshots) {
+            for (Line line : snapshot.lines()) {
+                lines.add(new Object[]{snapshot.cartId(), line.productId(), line.quantity(),
+                        line.discount(), line.productPrice()});
+            }
+        }
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE cart_id = ?", snapshots, BATCH_SIZE,
+                    (ps, snapshot) -> ps.setLong(1, snapshot.cartId()));
+            jdbcTemplate.batchUpdate("INSERT INTO cart_items (cart_id, product_id, quantity, discount, product_price) "
+                    + "VALUES (?, ?, ?, ?, ?)", lines, BATCH_SIZE, (ps, line) -> {
+                ps.setLong(1, (Long) line[0]);
+                ps.setLong(2, (Long) line[1]);
+                ps.setInt(3, (Integer) line[2]);
+                ps.setDouble(4, (Double) line[3]);
+                ps.setDouble(5, (Double) line[4]);
+            });
+            jdbcTemplate.batchUpdate("UPDATE carts SET total_price = ? WHERE cart_id = ?", snapshots, BATCH_SIZE,
+                    (ps, snapshot) -> {
+                        ps.setDouble(1, snapshot.totalPrice());
+                        ps.setLong(2, snapshot.cartId());
+                    });
+        });
+    }
+
+    private CartState load(Long userId, String email, boolean create) {
+        Cart cart = cartRepository.findCartByEmail(email);
+        if (cart == null) {
+            if (!create) {
+                return null;
+            }
+            // Created right away so the cart id in the responses is the real one
+            cart = new Cart();
+            cart.setTotalPrice(0.00);
+            cart.setUser(userRepository.getReferenceById(userId));
+            cart = cartRepository.save(cart);
+        }
+        CartState state = new CartState(userId, email, cart.getCartId(), cart.getTotalPrice());
+        for (CartItem item : cart.getCartItems()) {
+            Long productId = item.getProduct().getProductId();
+            state.lines.put(productId, new Line(productId, item.getQuantity(), item.getDiscount(), item.getProductPrice()));
+        }
+        return state;
+    }
+
+    private List<CartState> dirtyCarts() {
+        List<CartState> dirty = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (CartState cart : shard.carts.values()) {
+                    if (cart.dirty) {
+                        dirty.add(cart);
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return dirty;
+    }
+
+    private void remove(Shard shard, Long userId) {
+        CartState cart = shard.carts.remove(userId);
+        if (cart != null) {
+            userIdsByEmail.remove(cart.email, userId);
+            userIdsByCartId.remove(cart.cartId, userId);
+        }
+    }
+
+    private Shard shardOf(Long userId) {
+        return shards[Math.floorMod(userId.hashCode(), shards.length)];
+    }
+}
@@ -0,0 +1,196 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.IndividualProductDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.util.AuthUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cart operations against the {@link CartStore}, with the same rules, messages and responses as
+ * {@link CartServiceImpl}. Products come from the product cache, so a click on a resident cart
+ * does not touch the database. Whatever works on carts in bulk is left to CartServiceImpl.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "spring.app.cartStoreEnabled", havingValue = "true")
+public class CartStoreService implements CartService {
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private CartServiceImpl databaseCarts;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @Override
+    public CartDTO addProductToCart(Long productId, Integer quantity) {
+        IndividualProductDTO product = loadProduct(productId);
+
+        CartStore.Snapshot cart = cartStore.apply(authUtil.loggedInUserId(), authUtil.loggedInEmail(), true, state -> {
+            if (state.line(productId) != null) {
+                throw new APIException("Product " + product.getProductName() + " already exists in the cart");
+            }
+            checkStock(product, quantity);
+
+            state.putLine(new CartStore.Line(productId, quantity, product.getDiscount(), product.getSpecialPrice()));
+            state.setTotalPrice(state.getTotalPrice() + (product.getSpecialPrice() * quantity));
+        });
+        return toDTO(cart);
+    }
+
+    @Override
+    public List<CartDTO> getAllCarts() {
+        cartStore.flushAll();
+        return databaseCarts.getAllCarts();
+    }
+
+    @Override
+    public CartDTO getCart(String emailId, Long cartId) {
+        CartStore.Snapshot cart = cartStore.residentCart(emailId);
+        if (cart != null && cart.cartId().equals(cartId)) {
+            return toDTO(cart);
+        }
+        return databaseCarts.getCart(emailId, cartId);
+    }
+
+    @Override
+    public CartDTO getUserCart(String emailId) {
+        CartStore.Snapshot cart = cartStore.apply(authUtil.loggedInUserId(), emailId, false, state -> {
+        });
+        if (cart == null) {
+            throw new ResourceNotFoundException("Cart", "email", emailId);
+        }
+        return toDTO(cart);
+    }
+
+    @Override
+    public CartDTO updateProductQuantityInCart(Long productId, Integer quantity) {
+        String emailId = authUtil.loggedInEmail();
+        IndividualProductDTO product = loadProduct(productId);
+
+        CartStore.Snapshot cart = cartStore.apply(authUtil.loggedInUserId(), emailId, false, state -> {
+            checkStock(product, quantity);
+
+            CartStore.Line line = state.line(productId);
+            if (line == null) {
+                throw new APIException("Product " + product.getProductName() + " not available in the cart!!!");
+            }
+
+            int newQuantity = line.quantity() + quantity;
+            if (newQuantity < 0) {
+                throw new APIException("The resulting quantity cannot be negative.");
+            }
+
+            if (newQuantity == 0) {
+                state.setTotalPrice(state.getTotalPrice() - (line.productPrice() * line.quantity()));
+                state.removeLine(productId);
+            } else {
+                state.putLine(new CartStore.Line(productId, newQuantity, product.getDiscount(), product.getSpecialPrice()));
+                state.setTotalPrice(state.getTotalPrice() + (product.getSpecialPrice() * quantity));
+            }
+        });
+        if (cart == null) {
+            throw new ResourceNotFoundException("Cart", "email", emailId);
+        }
+        return toDTO(cart);
+    }
+
+    @Override
+    public String deleteProductFromCart(Long cartId, Long productId) {
+        // Inside a transaction (checkout) the caller read the cart from the database, so change it there
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return databaseCarts.deleteProductFromCart(cartId, productId);
+        }
+        CartStore.Snapshot cart = cartStore.applyIfResident(cartId, state -> {
+            CartStore.Line line = state.line(productId);
+            if (line == null) {
+                throw new ResourceNotFoundException("Product", "productId", productId);
+            }
+            state.setTotalPrice(state.getTotalPrice() - (line.productPrice() * line.quantity()));
+            state.removeLine(productId);
+        });
+        if (cart == null) {
+            return databaseCarts.deleteProductFromCart(cartId, productId);
+        }
+        return "Product " + loadProduct(productId).getProductName() + " removed from the cart !!!";
+    }
+
+    @Override
+    public int repriceProductInCarts(Long productId, double specialPrice, double discount) {
+        cartStore.holdForReprice(List.of(productId));
+        int updatedItems = databaseCarts.repriceProductInCarts(productId, specialPrice, discount);
+        cartStore.repriceResident(productId, specialPrice, discount);
+        return updatedItems;
+    }
+
+    @Override
+    public int repriceProductsInCarts(Collection<Long> productIds) {
+        cartStore.holdForReprice(productIds);
+        int updatedItems = databaseCarts.repriceProductsInCarts(productIds);
+        // Read inside the caller's transaction, so these are the prices it is about to commit
+        for (Object[] row : productRepository.findFacetFieldsByIds(productIds)) {
+            cartStore.repriceResident((Long) row[0], (Double) row[2], (Double) row[3]);
+        }
+        return updatedItems;
+    }
+
+    @Override
+    public int repriceCategoryInCarts(Long categoryId) {
+        cartStore.holdForReprice(productRepository.findIdsByCategoryId(categoryId));
+        int updatedItems = databaseCarts.repriceCategoryInCarts(categoryId);
+        for (Object[] row : productRepository.findFacetFieldsByCategoryId(categoryId)) {
+            cartStore.repriceResident((Long) row[0], (Double) row[2], (Double) row[3]);
+        }
+        return updatedItems;
+    }
+
+    private static void checkStock(IndividualProductDTO product, Integer quantity) {
+        if (product.getQuantity() == 0) {
+            throw new APIException(product.getProductName() + " is not available");
+        }
+
+        if (product.getQuantity() < quantity) {
+            throw new APIException("Please, make an order of the " + product.getProductName()
+                    + " less than or equal to the quantity " + product.getQuantity() + ".");
+        }
+    }
+
+    private CartDTO toDTO(CartStore.Snapshot cart) {
+        List<ProductDTO> products = new ArrayList<>(cart.lines().size());
+        for (CartStore.Line line : cart.lines()) {
+            ProductDTO productDTO = productCache.getProduct(line.productId(), this::findProduct);
+            productDTO.setQuantity(line.quantity());
+            products.add(productDTO);
+        }
+        return new CartDTO(cart.cartId(), cart.totalPrice(), products);
+    }
+
+    private IndividualProductDTO loadProduct(Long productId) {
+        return productCache.get(productId, this::findProduct);
+    }
+
+    private IndividualProductDTO findProduct(Long productId) {
+        return productRepository.findIndividualProductById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * Sort columns the catalog listings accept. Each one is backed by an index (see the
+ * db/migration scripts), so a client cannot ask for an ORDER BY that needs a full filesort.
+ */
+final class CatalogSort {
+
+    static final Set<String> PRODUCT_FIELDS = Set.of("productId", "productName", "price", "specialPrice");
+    static final Set<String> CATEGORY_FIELDS = Set.of("categoryId", "categoryName");
+
+    private CatalogSort() {
+    }
+
+    static Sort products(String sortBy, String sortOrder) {
+        return sort(PRODUCT_FIELDS, sortBy, sortOrder);
+    }
+
+    static Sort categories(String sortBy, String sortOrder) {
+        return sort(CATEGORY_FIELDS, sortBy, sortOrder);
+    }
+
+    private static Sort sort(Set<String> fields, String sortBy, String sortOrder) {
+        if (!fields.contains(sortBy)) {
+            throw new APIException("Cannot sort by " + sortBy + ", use one of " + fields);
+        }
+        return sortOrder.equalsIgnoreCase("asc")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.util.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Monotonically increasing catalog version, kept for the whole catalog, per category and per product.
+ * It drives the ETag and Last-Modified headers of the public catalog endpoints, so a revalidation
+ * is answered from memory without touching the database.
+ * Versions move only after the write commits; otherwise a read racing with the write could tag
+ * the old rows with the new version. The counter starts at the boot time in milliseconds, so
+ * ETags handed out before a restart do not match again afterwards.
+ */
+@Component
+public class CatalogVersion {
+
+    public record Version(long value, long lastModified) {
+        public String etag() {
+            return "\"v" + value + "\"";
+        }
+    }
+
+    private final Map<Long, Version> categories = new ConcurrentHashMap<>();
+    private final Map<Long, Version> products = new ConcurrentHashMap<>();
+
+    private long counter;
+    private volatile Version catalog;
+    // Everything older than this was invalidated by a catalog-wide write
+    private volatile Version floor;
+
+    public CatalogVersion() {
+        long now = System.currentTimeMillis();
+        counter = now;
+        catalog = new Version(counter, now);
+        floor = catalog;
+    }
+
+    public Version catalog() {
+        return catalog;
+    }
+
+    public Version category(Long categoryId) {
+        return newest(categories.get(categoryId));
+    }
+
+    public Version product(Long productId) {
+        return newest(products.get(productId));
+    }
+
+    public void productChanged(Long productId, Long categoryId) {
+        AfterCommit.run(() -> {
+            Version version = next();
+            products.put(productId, version);
+            if (categoryId != null) {
+                categories.put(categoryId, version);
+            }
+        });
+    }
+
+    public void categoryChanged(Long categoryId) {
+        AfterCommit.run(() -> categories.put(categoryId, next()));
+    }
+
+    /**
+     * For writes that touch many products at once (bulk updates, imports, category deletion).
+     */
+    public void catalogChanged() {
+        AfterCommit.run(() -> floor = next());
+    }
+
+    private synchronized Version next() {
+        long now = System.currentTimeMillis();
+        Version version = new Version(++counter, Math.max(now, catalog.lastModified()));
+        catalog = version;
+        return version;
+    }
+
+    private Version newest(Version version) {
+        Version min = floor;
+        return version == null || version.value() < min.value() ? min : version;
+    }
+}
@@ -2,15 +2,20 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.mapper.CategoryMapper;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
 import com.ecommerce.project.repositories.CategoryRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.search.ProductFacetIndex;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.search.ProductSuggester;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
@@ -23,43 +28,69 @@ public class CategoryServiceImpl implements CategoryService{
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired(required = false)
+    private CartStore cartStore;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private MenuSnapshot menuSnapshot;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
 
     @Override
-    public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+    public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean slice) {
+        Sort sortByAndOrder = CatalogSort.categories(sortBy, sortOrder);
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Category> categoryPage = categoryRepository.findAll(pageDetails);
+        Slice<Category> categoryPage = slice
+                ? categoryRepository.findAllBy(pageDetails)
+                : categoryRepository.findAll(pageDetails);
 
         List<Category> categories = categoryPage.getContent();
         if (categories.isEmpty())
             throw new APIException("No category created till now.");
 
         List<CategoryDTO> categoryDTOS = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .map(CategoryMapper::toDTO)
                 .toList();
 
         CategoryResponse categoryResponse = new CategoryResponse();
         categoryResponse.setContent(categoryDTOS);
         categoryResponse.setPageNumber(categoryPage.getNumber());
         categoryResponse.setPageSize(categoryPage.getSize());
-        categoryResponse.setTotalElements(categoryPage.getTotalElements());
-        categoryResponse.setTotalPages(categoryPage.getTotalPages());
+        if (categoryPage instanceof Page<Category> page) {
+            categoryResponse.setTotalElements(page.getTotalElements());
+            categoryResponse.setTotalPages(page.getTotalPages());
+        }
         categoryResponse.setLastPage(categoryPage.isLast());
         return categoryResponse;
     }
 
     @Override
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        Category category = CategoryMapper.toEntity(categoryDTO);
         Category categoryFromDb = categoryRepository.findByCategoryName(category.getCategoryName());
         if (categoryFromDb != null)
             throw new APIException("Category with the name " + category.getCategoryName() + " already exists !!!");
         Category savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        productSuggester.catalogChanged();
+        menuSnapshot.catalogChanged();
+        catalogVersion.categoryChanged(savedCategory.getCategoryId());
+        return CategoryMapper.toDTO(savedCategory);
     }
 
     @Override
@@ -67,8 +98,21 @@ public class CategoryServiceImpl implements CategoryService{
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category","categoryId",categoryId));
 
+        // The category's products go with it
+        List<Long> productIds = productRepository.findIdsByCategoryId(categoryId);
+        if (cartStore != null && !productIds.isEmpty()) {
+            // Resident carts may hold lines that are not written yet
+            cartStore.evictCartsWithProducts(productIds);
+        }
+
         categoryRepository.delete(category);
-        return modelMapper.map(category, CategoryDTO.class);
+        productCache.invalidateAll();
+        productIds.forEach(productSearchIndex::remove);
+        productSuggester.catalogChanged();
+        menuSnapshot.catalogChanged();
+        catalogVersion.catalogChanged();
+        productFacetIndex.build();
+        return CategoryMapper.toDTO(category);
     }
 
     @Override
@@ -76,9 +120,12 @@ public class CategoryServiceImpl implements CategoryService{
         Category savedCategory = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category","categoryId",categoryId));
 
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        Category category = CategoryMapper.toEntity(categoryDTO);
         category.setCategoryId(categoryId);
         savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        productSuggester.catalogChanged();
+        menuSnapshot.catalogChanged();
+        catalogVersion.categoryChanged(categoryId);
+        return CategoryMapper.toDTO(savedCategory);
     }
 }
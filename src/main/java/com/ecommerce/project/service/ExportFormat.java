@@ -0,0 +1,10 @@
+package com.ecommerce.project.service;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON;
+
+    public static ExportFormat fromString(String format) {
+        return "csv".equalsIgnoreCase(format) ? CSV : NDJSON;
+    }
+}
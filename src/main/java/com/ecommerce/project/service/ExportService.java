@@ -0,0 +1,11 @@
+package com.ecommerce.project.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface ExportService {
+    void exportProducts(OutputStream out, ExportFormat format) throws IOException;
+
+    void exportOrders(OutputStream out, ExportFormat format, LocalDate from, LocalDate to, String status) throws IOException;
+}
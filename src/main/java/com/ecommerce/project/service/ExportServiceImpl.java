@@ -0,0 +1,152 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.IndividualProductDTO;
+import com.ecommerce.project.payload.OrderExportDTO;
+import com.ecommerce.project.payload.OrderExportItemDTO;
+import com.ecommerce.project.repositories.OrderRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes exports row by row from forward-only query streams. Only the row being written (for
+ * orders, the order being assembled) is held in memory, and output is flushed every chunk so the
+ * client starts receiving data immediately.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String PRODUCT_CSV_HEADER =
+            "productId,productName,image,description,quantity,categoryId,price,discount,specialPrice";
+    private static final String ORDER_CSV_HEADER =
+            "orderId,email,orderDate,orderStatus,totalAmount,paymentMethod,paymentStatus,addressId,"
+                    + "orderItemId,productId,productName,quantity,discount,orderedProductPrice";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream out, ExportFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(PRODUCT_CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        try (Stream<IndividualProductDTO> products = productRepository.streamAllForExport()) {
+            Iterator<IndividualProductDTO> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                IndividualProductDTO product = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, product.getProductId(), product.getProductName(), product.getImage(),
+                            product.getDescription(), product.getQuantity(), product.getCategoryId(),
+                            product.getPrice(), product.getDiscount(), product.getSpecialPrice());
+                } else {
+                    writeJson(writer, product);
+                }
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(OutputStream out, ExportFormat format, LocalDate from, LocalDate to, String status) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(ORDER_CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        OrderExportDTO current = null;
+        try (Stream<Object[]> lines = orderRepository.streamOrderLinesForExport(from, to, status)) {
+            Iterator<Object[]> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                Object[] line = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, line);
+                } else {
+                    Long orderId = (Long) line[0];
+                    if (current != null && !current.getOrderId().equals(orderId)) {
+                        writeJson(writer, current);
+                        current = null;
+                    }
+                    if (current == null) {
+                        current = new OrderExportDTO();
+                        current.setOrderId(orderId);
+                        current.setEmail((String) line[1]);
+                        current.setOrderDate((LocalDate) line[2]);
+                        current.setOrderStatus((String) line[3]);
+                        current.setTotalAmount((Double) line[4]);
+                        current.setPaymentMethod((String) line[5]);
+                        current.setPaymentStatus((String) line[6]);
+                        current.setAddressId((Long) line[7]);
+                    }
+                    if (line[8] != null) {
+                        current.getItems().add(new OrderExportItemDTO((Long) line[8], (Long) line[9], (String) line[10],
+                                (Integer) line[11], (Double) line[12], (Double) line[13]));
+                    }
+                }
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        if (current != null) {
+            writeJson(writer, current);
+        }
+        writer.flush();
+    }
+
+    private void writeJson(Writer writer, Object value) throws IOException {
+        writer.write(objectMapper.writeValueAsString(value));
+        writer.write('\n');
+    }
+
+    private static void writeCsv(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.IndividualProductDTO;
+import com.ecommerce.project.payload.MenuCategoryDTO;
+import com.ecommerce.project.payload.MenuDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.util.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The whole menu (categories with their products) serialized once into JSON and gzip bytes.
+ * Requests are served straight from the current snapshot; catalog writes schedule a rebuild
+ * after commit, and the new snapshot replaces the old one in a single volatile write.
+ */
+@Component
+public class MenuSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(MenuSnapshot.class);
+
+    public record Snapshot(byte[] json, byte[] gzip, String etag, String gzipEtag, Instant builtAt) {
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "menu-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = build();
+            }
+            return snapshot;
+        }
+    }
+
+    public void catalogChanged() {
+        AfterCommit.run(this::scheduleRebuild);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    void rebuild() {
+        snapshot = build();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.error("Cannot rebuild menu snapshot: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private Snapshot build() {
+        Map<Long, MenuCategoryDTO> categories = new TreeMap<>();
+        for (Object[] row : categoryRepository.findAllNames()) {
+            categories.put((Long) row[0], new MenuCategoryDTO((Long) row[0], (String) row[1], new ArrayList<>()));
+        }
+        for (IndividualProductDTO product : productRepository.findMenuProducts()) {
+            MenuCategoryDTO category = categories.get(product.getCategoryId());
+            if (category != null) {
+                category.getProducts().add(new ProductDTO(product.getProductId(), product.getProductName(),
+                        product.getImage(), product.getDescription(), product.getQuantity(),
+                        product.getPrice(), product.getDiscount(), product.getSpecialPrice()));
+            }
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(new MenuDTO(new ArrayList<>(categories.values())));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String etag = etag(json);
+        // Each encoding is its own representation, so the gzip bytes get their own strong validator
+        Snapshot built = new Snapshot(json, gzip(json), "\"" + etag + "\"", "\"" + etag + "-gzip\"", Instant.now());
+        logger.debug("Menu snapshot rebuilt: {} categories, {} bytes", categories.size(), json.length);
+        return built;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Strong validator: it only depends on the menu content, not on when it was built
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,13 +2,13 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.mapper.OrderMapper;
 import com.ecommerce.project.model.*;
 import com.ecommerce.project.payload.OrderDTO;
-import com.ecommerce.project.payload.OrderItemDTO;
 import com.ecommerce.project.payload.PaymentStatusUpdateDTO;
 import com.ecommerce.project.repositories.*;
+import com.ecommerce.project.search.ProductFacetIndex;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.CannotAcquireLockException;
@@ -47,10 +47,20 @@ public class OrderServiceImpl implements OrderService {
     CartService cartService;
 
     @Autowired
-    ModelMapper modelMapper;
+    ProductRepository productRepository;
 
     @Autowired
-    ProductRepository productRepository;
+    ProductCache productCache;
+
+    @Autowired
+    MenuSnapshot menuSnapshot;
+
+    @Autowired
+    CatalogVersion catalogVersion;
+
+    @Autowired
+    ProductFacetIndex productFacetIndex;
+
     @Override
     @Transactional
     public OrderDTO placeOrder(String emailId, Long addressId, String paymentMethod, String pgName, String pgPaymentId, String pgStatus, String pgResponseMessage) {
@@ -114,11 +124,17 @@ public class OrderServiceImpl implements OrderService {
             Product product = item.getProduct();
             product.setQuantity(product.getQuantity() - quantity);
             productRepository.save(product);
+            productCache.invalidate(product.getProductId());
+            catalogVersion.productChanged(product.getProductId(),
+                    product.getCategory() != null ? product.getCategory().getCategoryId() : null);
+            productFacetIndex.updateStock(product.getProductId(), product.getQuantity());
             cartService.deleteProductFromCart(cart.getCartId(), item.getProduct().getProductId());
         });
+        // Stock levels are part of the menu
+        menuSnapshot.catalogChanged();
 
-        OrderDTO orderDTO = modelMapper.map(savedOrder, OrderDTO.class);
-        orderItems.forEach(item -> orderDTO.getOrderItems().add(modelMapper.map(item, OrderItemDTO.class)));
+        OrderDTO orderDTO = OrderMapper.toDTO(savedOrder);
+        orderItems.forEach(item -> orderDTO.getOrderItems().add(OrderMapper.toDTO(item)));
         orderDTO.setAddressId(addressId);
 
         return orderDTO;
@@ -152,12 +168,7 @@ public class OrderServiceImpl implements OrderService {
 
     // Método auxiliar para mapear Order a OrderDTO
     private OrderDTO mapToOrderDTO(Order order) {
-        OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
-        List<OrderItemDTO> orderItems = order.getOrderItems().stream()
-                .map(item -> modelMapper.map(item, OrderItemDTO.class))
-                .toList();
-        orderDTO.setOrderItems(orderItems);
-        return orderDTO;
+        return OrderMapper.toDTO(order);
     }
     @Override
     @Transactional
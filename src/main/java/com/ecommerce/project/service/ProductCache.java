@@ -0,0 +1,173 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.IndividualProductDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.util.AfterCommit;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of products by productId, bounded in size and with a TTL.
+ * Concurrent misses for the same id wait on a single load. Callers always get their own copy,
+ * so mutating a returned DTO never leaks into the cache.
+ * At maxSize the oldest entries by insertion are dropped, a bounded amount of work per miss;
+ * expired entries are swept every productCacheSweepMs.
+ */
+@Component
+public class ProductCache {
+
+    private record Entry(IndividualProductDTO product, long expiresAt) {
+    }
+
+    // Eviction gives up after this many queue elements, whatever the cache size
+    private static final int MAX_EVICTION_ATTEMPTS = 16;
+
+    @Value("${spring.app.productCacheTtlMs:60000}")
+    private long ttlMs;
+
+    @Value("${spring.app.productCacheMaxSize:5000}")
+    private int maxSize;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    // Insertion order of the ids; ids removed in the meantime are skipped and compacted by the sweep
+    private final Queue<Long> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (meterRegistry != null) {
+            FunctionCounter.builder("product.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("product.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("product.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+            Gauge.builder("product.cache.size", entries, Map::size).register(meterRegistry);
+        }
+    }
+
+    public IndividualProductDTO get(Long productId, Function<Long, IndividualProductDTO> loader) {
+        long now = System.currentTimeMillis();
+
+        CompletableFuture<Entry> existing = entries.get(productId);
+        if (existing != null) {
+            Entry entry = existing.getNow(null);
+            if (entry == null || entry.expiresAt() > now) {
+                hits.increment();
+                return copy(await(existing).product());
+            }
+            if (entries.remove(productId, existing)) {
+                evictions.increment();
+            }
+        }
+
+        CompletableFuture<Entry> loading = new CompletableFuture<>();
+        existing = entries.putIfAbsent(productId, loading);
+        if (existing != null) {
+            hits.increment();
+            return copy(await(existing).product());
+        }
+
+        misses.increment();
+        try {
+            IndividualProductDTO product = loader.apply(productId);
+            loading.complete(new Entry(copy(product), now + ttlMs));
+            insertionOrder.offer(productId);
+            evictIfFull();
+            return product;
+        } catch (RuntimeException e) {
+            entries.remove(productId, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public ProductDTO getProduct(Long productId, Function<Long, IndividualProductDTO> loader) {
+        IndividualProductDTO product = get(productId, loader);
+        return new ProductDTO(product.getProductId(), product.getProductName(), product.getImage(),
+                product.getDescription(), product.getQuantity(), product.getPrice(),
+                product.getDiscount(), product.getSpecialPrice());
+    }
+
+    /**
+     * Drops the entry now and, when called inside a transaction, once more after commit so a
+     * read racing with the write cannot put the old row back.
+     */
+    public void invalidate(Long productId) {
+        entries.remove(productId);
+        AfterCommit.run(() -> entries.remove(productId));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        AfterCommit.run(() -> entries.clear());
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.productCacheSweepMs:60000}",
+            initialDelayString = "${spring.app.productCacheSweepMs:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.forEach((productId, future) -> {
+            Entry entry = future.getNow(null);
+            if (entry != null && entry.expiresAt() <= now && entries.remove(productId, future)) {
+                evictions.increment();
+            }
+        });
+        // Reloads after an invalidation queue the id again; keep only its oldest position
+        Set<Long> seen = new HashSet<>();
+        insertionOrder.removeIf(productId -> !entries.containsKey(productId) || !seen.add(productId));
+    }
+
+    private void evictIfFull() {
+        for (int i = 0; i < MAX_EVICTION_ATTEMPTS && entries.size() > maxSize; i++) {
+            Long oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            CompletableFuture<Entry> future = entries.get(oldest);
+            if (future != null && !future.isDone()) {
+                // Never drop a load other readers are waiting on
+                insertionOrder.offer(oldest);
+            } else if (future != null && entries.remove(oldest, future)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static IndividualProductDTO copy(IndividualProductDTO product) {
+        return new IndividualProductDTO(product.getProductId(), product.getProductName(), product.getImage(),
+                product.getDescription(), product.getQuantity(), product.getCategoryId(), product.getPrice(),
+                product.getDiscount(), product.getSpecialPrice());
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Product counts per category, so slice responses can still report a total without a COUNT(*)
+ * per request. Product create and delete adjust the counts; a periodic refresh corrects any drift.
+ */
+@Component
+public class ProductCountCache {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private volatile Map<Long, AtomicLong> counts;
+
+    public long countByCategory(Long categoryId) {
+        AtomicLong count = counts().get(categoryId);
+        return count != null ? count.get() : 0;
+    }
+
+    public long countAll() {
+        return counts().values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public void productAdded(Long categoryId) {
+        counts().computeIfAbsent(categoryId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    public void productRemoved(Long categoryId) {
+        AtomicLong count = counts().get(categoryId);
+        if (count != null) {
+            count.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.productCountRefreshMs:300000}",
+            initialDelayString = "${spring.app.productCountRefreshMs:300000}")
+    public void refresh() {
+        List<Object[]> rows = productRepository.countProductsByCategory();
+        Map<Long, AtomicLong> fresh = new ConcurrentHashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                fresh.put((Long) row[0], new AtomicLong(((Number) row[1]).longValue()));
+            }
+        }
+        counts = fresh;
+    }
+
+    private Map<Long, AtomicLong> counts() {
+        Map<Long, AtomicLong> current = counts;
+        if (current == null) {
+            synchronized (this) {
+                if (counts == null) {
+                    refresh();
+                }
+                current = counts;
+            }
+        }
+        return current;
+    }
+}
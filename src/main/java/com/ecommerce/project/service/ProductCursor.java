@@ -0,0 +1,71 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Product;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation token for keyset paging over products: the sort column and direction,
+ * and the sort key and productId of the last row returned.
+ */
+final class ProductCursor {
+
+    private ProductCursor() {
+    }
+
+    static Sort sort(String sortBy, String sortOrder) {
+        if (!CatalogSort.PRODUCT_FIELDS.contains(sortBy)) {
+            throw new APIException("Cursor paging cannot sort by " + sortBy + ", use one of " + CatalogSort.PRODUCT_FIELDS);
+        }
+        Sort.Direction direction = sortOrder.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortBy);
+        return sortBy.equals("productId") ? sort : sort.and(Sort.by(direction, "productId"));
+    }
+
+    static ScrollPosition position(String cursor, String sortBy, String sortOrder) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new APIException("Invalid cursor");
+        }
+        if (parts.length != 4 || !parts[0].equals(sortBy) || !parts[1].equalsIgnoreCase(sortOrder)) {
+            throw new APIException("Invalid cursor for sortBy " + sortBy + " and sortOrder " + sortOrder);
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            Long productId = Long.valueOf(parts[2]);
+            switch (sortBy) {
+                case "productName" -> keys.put(sortBy, parts[3]);
+                case "price", "specialPrice" -> keys.put(sortBy, Double.valueOf(parts[3]));
+                default -> { }
+            }
+            keys.put("productId", productId);
+        } catch (NumberFormatException e) {
+            throw new APIException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    static String encode(Product last, String sortBy, String sortOrder) {
+        String value = switch (sortBy) {
+            case "productName" -> last.getProductName();
+            case "price" -> String.valueOf(last.getPrice());
+            case "specialPrice" -> String.valueOf(last.getSpecialPrice());
+            default -> "";
+        };
+        String raw = sortBy + "|" + sortOrder.toLowerCase() + "|" + last.getProductId() + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.project.service;
+
+public enum ProductImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,358 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.ProductImportError;
+import com.ecommerce.project.payload.ProductImportResponse;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.search.ProductFacetIndex;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.search.ProductSuggester;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Streams a CSV or NDJSON menu file line by line. Valid rows are collected into chunks; each chunk
+ * checks duplicate names with one IN query and is inserted with JDBC batches in its own transaction,
+ * so a bad chunk never rolls back the chunks before it and the file is never held in memory.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    static final int CHUNK_SIZE = 1000;
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products "
+            + "(product_name, image, description, quantity, price, discount, special_price, category_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("productName", "description", "quantity", "price", "categoryId");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductCountCache productCountCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private MenuSnapshot menuSnapshot;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    private record ImportRow(long row, String productName, String description, int quantity,
+                             double price, double discount, long categoryId, String image) {
+    }
+
+    private static final class ImportState {
+        private final Set<Long> categoryIds;
+        private final Set<String> seenNames = new HashSet<>();
+        private final ProductImportResponse response = new ProductImportResponse();
+
+        private ImportState(Set<Long> categoryIds) {
+            this.categoryIds = categoryIds;
+        }
+
+        private void reject(long row, String message) {
+            response.setRejected(response.getRejected() + 1);
+            if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+                response.getErrors().add(new ProductImportError(row, message));
+            }
+        }
+    }
+
+    @Override
+    public ProductImportResponse importProducts(InputStream input, ProductImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        ImportState state = new ImportState(new HashSet<>(categoryRepository.findAllIds()));
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<String, Integer> header = Map.of();
+        if (format == ProductImportFormat.CSV) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return finish(state, start);
+            }
+            header = csvHeader(headerLine);
+            List<String> missing = missingColumns(header);
+            if (!missing.isEmpty()) {
+                state.reject(1, "Missing CSV columns: " + String.join(", ", missing));
+                return finish(state, start);
+            }
+        }
+
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long lineNumber = format == ProductImportFormat.CSV ? 1 : 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            state.response.setRowsRead(state.response.getRowsRead() + 1);
+            try {
+                ImportRow row = format == ProductImportFormat.CSV
+                        ? fromCsv(lineNumber, line, header)
+                        : fromJson(lineNumber, line);
+                String error = validate(row, state);
+                if (error != null) {
+                    state.reject(lineNumber, error);
+                    continue;
+                }
+                chunk.add(row);
+            } catch (IllegalArgumentException e) {
+                state.reject(lineNumber, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                insertChunk(chunk, state);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, state);
+        }
+
+        if (state.response.getImported() > 0) {
+            productCountCache.refresh();
+            productSearchIndex.build();
+            productSuggester.catalogChanged();
+            menuSnapshot.catalogChanged();
+            catalogVersion.catalogChanged();
+            productFacetIndex.build();
+        }
+        return finish(state, start);
+    }
+
+    private void insertChunk(List<ImportRow> chunk, ImportState state) {
+        Set<String> names = new HashSet<>();
+        chunk.forEach(row -> names.add(row.productName()));
+
+        Set<String> existing = new HashSet<>();
+        for (Object[] match : productRepository.findCategoryAndNameByProductNameIn(names)) {
+            existing.add(nameKey((Long) match[0], (String) match[1]));
+        }
+
+        List<ImportRow> inserts = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existing.contains(nameKey(row.categoryId(), row.productName()))) {
+                state.reject(row.row(), "Product already exist!!");
+            } else {
+                inserts.add(row);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_PRODUCT, inserts, BATCH_SIZE, (ps, row) -> {
+                        ps.setString(1, row.productName());
+                        ps.setString(2, row.image());
+                        ps.setString(3, row.description());
+                        ps.setInt(4, row.quantity());
+                        ps.setDouble(5, row.price());
+                        ps.setDouble(6, row.discount());
+                        ps.setDouble(7, row.price() - ((row.discount() * 0.01) * row.price()));
+                        ps.setLong(8, row.categoryId());
+                    }));
+            state.response.setImported(state.response.getImported() + inserts.size());
+        } catch (DataAccessException e) {
+            logger.warn("Product import chunk of {} rows rolled back: {}", inserts.size(), e.getMostSpecificCause().getMessage());
+            inserts.forEach(row -> state.reject(row.row(), "Chunk rolled back: " + e.getMostSpecificCause().getMessage()));
+        }
+    }
+
+    private String validate(ImportRow row, ImportState state) {
+        if (row.productName() == null || row.productName().isBlank() || row.productName().length() < 3) {
+            return "Product name must contain atleast 3 characters";
+        }
+        if (row.description() == null || row.description().isBlank() || row.description().length() < 6) {
+            return "Product description must contain atleast 6 characters";
+        }
+        if (row.quantity() < 0) {
+            return "quantity must not be negative";
+        }
+        if (row.price() < 0) {
+            return "price must not be negative";
+        }
+        if (row.discount() < 0 || row.discount() > 100) {
+            return "discount must be between 0 and 100";
+        }
+        if (!state.categoryIds.contains(row.categoryId())) {
+            return "Category not found with categoryId: " + row.categoryId();
+        }
+        if (!state.seenNames.add(nameKey(row.categoryId(), row.productName()))) {
+            return "Duplicate product name in file: " + row.productName();
+        }
+        return null;
+    }
+
+    private ProductImportResponse finish(ImportState state, long start) {
+        ProductImportResponse response = state.response;
+        // Duplicates against the database are found when a chunk is flushed, after later rows were parsed
+        response.getErrors().sort(Comparator.comparingLong(ProductImportError::getRow));
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        response.setElapsedMs(elapsedNanos / 1_000_000);
+        response.setRowsPerSecond(response.getRowsRead() * 1_000_000_000L / elapsedNanos);
+        logger.info("Product import: {} rows read, {} imported, {} rejected in {} ms",
+                response.getRowsRead(), response.getImported(), response.getRejected(), response.getElapsedMs());
+        return response;
+    }
+
+    private ImportRow fromJson(long lineNumber, String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Each line must be a JSON object");
+        }
+        return toRow(lineNumber, field -> node.hasNonNull(field) ? node.get(field).asText() : null);
+    }
+
+    private ImportRow fromCsv(long lineNumber, String line, Map<String, Integer> header) {
+        List<String> values = csvValues(line);
+        return toRow(lineNumber, field -> {
+            Integer index = header.get(field.toLowerCase(Locale.ROOT));
+            return index != null && index < values.size() ? values.get(index) : null;
+        });
+    }
+
+    private static ImportRow toRow(long lineNumber, Function<String, String> field) {
+        String discount = field.apply("discount");
+        String image = field.apply("image");
+        return new ImportRow(
+                lineNumber,
+                trimmed(field.apply("productName")),
+                trimmed(field.apply("description")),
+                parseInt(field.apply("quantity"), "quantity"),
+                parseDouble(field.apply("price"), "price"),
+                discount == null || discount.isBlank() ? 0 : parseDouble(discount, "discount"),
+                parseLong(field.apply("categoryId"), "categoryId"),
+                image == null || image.isBlank() ? "default.png" : image.trim());
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static int parseInt(String value, String field) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a whole number");
+        }
+    }
+
+    private static long parseLong(String value, String field) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a whole number");
+        }
+    }
+
+    private static double parseDouble(String value, String field) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+
+    private static String nameKey(Long categoryId, String productName) {
+        return categoryId + ":" + productName;
+    }
+
+    private static List<String> missingColumns(Map<String, Integer> header) {
+        return REQUIRED_COLUMNS.stream()
+                .filter(column -> !header.containsKey(column.toLowerCase(Locale.ROOT)))
+                .toList();
+    }
+
+    private static Map<String, Integer> csvHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> columns = csvValues(line);
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return header;
+    }
+
+    /**
+     * Splits one CSV record; fields may be quoted and a doubled quote inside quotes is a literal quote.
+     * Quoted fields cannot span lines.
+     */
+    static List<String> csvValues(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -2,27 +2,45 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
 import com.ecommerce.project.payload.IndividualProductDTO;
+import com.ecommerce.project.payload.ProductBulkUpdateRequest;
+import com.ecommerce.project.payload.ProductBulkUpdateResponse;
+import com.ecommerce.project.payload.ProductCursorResponse;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductFilterResponse;
 import com.ecommerce.project.payload.ProductResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Set;
 
 public interface ProductService {
     ProductDTO addProduct(Long categoryId, ProductDTO product);
 
-    ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean slice);
 
-    ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean slice);
 
-    ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean slice);
+
+    ProductFilterResponse filterProducts(ProductFilter filter, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+
+    ProductCursorResponse scrollAllProducts(String cursor, Integer pageSize, String sortBy, String sortOrder);
+
+    ProductCursorResponse scrollByCategory(Long categoryId, String cursor, Integer pageSize, String sortBy, String sortOrder);
+
+    ProductCursorResponse scrollProductByKeyword(String keyword, String cursor, Integer pageSize, String sortBy, String sortOrder);
 
     ProductDTO updateProduct(Long productId, ProductDTO product);
 
+    ProductBulkUpdateResponse bulkUpdate(ProductBulkUpdateRequest request);
+
     ProductDTO deleteProduct(Long productId);
 
     ProductDTO updateProductImage(Long productId, MultipartFile image) throws IOException;
 
+    Set<String> updateProductTags(Long productId, Set<String> tags);
+
     ProductDTO getProductById(Long productId);
 
     public IndividualProductDTO getIndividualProduct(Long productId);
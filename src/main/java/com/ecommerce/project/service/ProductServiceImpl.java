@@ -2,28 +2,45 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.mapper.ProductMapper;
 import com.ecommerce.project.model.Cart;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
-import com.ecommerce.project.payload.CartDTO;
 import com.ecommerce.project.payload.IndividualProductDTO;
+import com.ecommerce.project.payload.ProductBulkOperation;
+import com.ecommerce.project.payload.ProductBulkUpdateRequest;
+import com.ecommerce.project.payload.ProductBulkUpdateResponse;
+import com.ecommerce.project.payload.ProductCursorResponse;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductFilterResponse;
 import com.ecommerce.project.payload.ProductResponse;
 import com.ecommerce.project.repositories.CartRepository;
 import com.ecommerce.project.repositories.CategoryRepository;
 import com.ecommerce.project.repositories.ProductRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.project.search.ProductFacetIndex;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.search.ProductSuggester;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,10 +58,31 @@ public class ProductServiceImpl implements ProductService {
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private FileService fileService;
 
     @Autowired
-    private FileService fileService;
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductCountCache productCountCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private MenuSnapshot menuSnapshot;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired(required = false)
+    private CartStore cartStore;
 
     @Value("${project.image}")
     private String path;
@@ -66,138 +104,334 @@ public class ProductServiceImpl implements ProductService {
         }
 
         if (isProductNotPresent) {
-            Product product = modelMapper.map(productDTO, Product.class);
+            Product product = ProductMapper.toEntity(productDTO);
             product.setImage("default.png");
             product.setCategory(category);
             double specialPrice = product.getPrice() -
                     ((product.getDiscount() * 0.01) * product.getPrice());
             product.setSpecialPrice(specialPrice);
             Product savedProduct = productRepository.save(product);
-            return modelMapper.map(savedProduct, ProductDTO.class);
+            productCountCache.productAdded(categoryId);
+            productSearchIndex.index(savedProduct.getProductId(), savedProduct.getProductName(), savedProduct.getDescription());
+            productSuggester.catalogChanged();
+            menuSnapshot.catalogChanged();
+            catalogVersion.productChanged(savedProduct.getProductId(), categoryId);
+            productFacetIndex.index(savedProduct.getProductId(), categoryId, savedProduct.getSpecialPrice(),
+                    savedProduct.getDiscount(), savedProduct.getQuantity());
+            return ProductMapper.toDTO(savedProduct);
         } else {
             throw new APIException("Product already exist!!");
         }
     }
 
     @Override
-    public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+    public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean slice) {
+        Sort sortByAndOrder = CatalogSort.products(sortBy, sortOrder);
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findAll(pageDetails);
-
-        List<Product> products = pageProducts.getContent();
-
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
+        if (slice) {
+            Slice<ProductDTO> sliceProducts = productRepository.findProductDTOSlice(pageDetails);
+            return toProductResponse(sliceProducts, productCountCache.countAll());
+        }
 
-        ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(pageProducts.getNumber());
-        productResponse.setPageSize(pageProducts.getSize());
-        productResponse.setTotalElements(pageProducts.getTotalElements());
-        productResponse.setTotalPages(pageProducts.getTotalPages());
-        productResponse.setLastPage(pageProducts.isLast());
-        return productResponse;
+        Page<ProductDTO> pageProducts = productRepository.findProductDTOs(pageDetails);
+        return toProductResponse(pageProducts, pageProducts.getTotalElements());
     }
 
     @Override
-    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean slice) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+        Sort sortByAndOrder = CatalogSort.products(sortBy, sortOrder);
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findByCategoryOrderByPriceAsc(category, pageDetails);
-
-        List<Product> products = pageProducts.getContent();
+        Slice<ProductDTO> pageProducts = slice
+                ? productRepository.findProductDTOSliceByCategory(categoryId, pageDetails)
+                : productRepository.findProductDTOsByCategory(categoryId, pageDetails);
 
-        if(products.isEmpty()){
+        if(pageProducts.getContent().isEmpty()){
             throw new APIException(category.getCategoryName() + " category does not have any products");
         }
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
-
-        ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(pageProducts.getNumber());
-        productResponse.setPageSize(pageProducts.getSize());
-        productResponse.setTotalElements(pageProducts.getTotalElements());
-        productResponse.setTotalPages(pageProducts.getTotalPages());
-        productResponse.setLastPage(pageProducts.isLast());
-        return productResponse;
+        return toProductResponse(pageProducts, slice
+                ? productCountCache.countByCategory(categoryId)
+                : ((Page<ProductDTO>) pageProducts).getTotalElements());
     }
 
     @Override
-    public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+    public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean slice) {
+        if (productSearchIndex.isReady()) {
+            return searchIndexedKeyword(keyword, pageNumber, pageSize);
+        }
+
+        Sort sortByAndOrder = CatalogSort.products(sortBy, sortOrder);
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findByProductNameLikeIgnoreCase('%' + keyword + '%', pageDetails);
+        Slice<ProductDTO> pageProducts = slice
+                ? productRepository.findProductDTOSliceByNameLike('%' + keyword + '%', pageDetails)
+                : productRepository.findProductDTOsByNameLike('%' + keyword + '%', pageDetails);
 
-        List<Product> products = pageProducts.getContent();
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
+        if(pageProducts.getContent().isEmpty()){
+            throw new APIException("Products not found with keyword: " + keyword);
+        }
+
+        return toProductResponse(pageProducts, slice ? null : ((Page<ProductDTO>) pageProducts).getTotalElements());
+    }
+
+    /**
+     * Keyword search served from the inverted index: ranked ids are paged in memory and only the
+     * requested page is loaded, in a single projection query. Results are ordered by relevance.
+     * When nothing matches exactly, the query is retried against product names with typo tolerance.
+     */
+    private ProductResponse searchIndexedKeyword(String keyword, Integer pageNumber, Integer pageSize) {
+        List<Long> rankedIds = productSearchIndex.search(keyword);
+        if (rankedIds.isEmpty()) {
+            rankedIds = productSearchIndex.fuzzySearch(keyword);
+        }
+
+        int from = Math.min(pageNumber * pageSize, rankedIds.size());
+        int to = Math.min(from + pageSize, rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, to);
+
+        Map<Long, ProductDTO> productsById = productRepository.findProductDTOsByIds(pageIds).stream()
+                .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+
+        List<ProductDTO> productDTOS = pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .toList();
 
-        if(products.isEmpty()){
+        if (productDTOS.isEmpty()) {
             throw new APIException("Products not found with keyword: " + keyword);
         }
 
         ProductResponse productResponse = new ProductResponse();
         productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(pageProducts.getNumber());
-        productResponse.setPageSize(pageProducts.getSize());
-        productResponse.setTotalElements(pageProducts.getTotalElements());
-        productResponse.setTotalPages(pageProducts.getTotalPages());
-        productResponse.setLastPage(pageProducts.isLast());
+        productResponse.setPageNumber(pageNumber);
+        productResponse.setPageSize(pageSize);
+        productResponse.setTotalElements((long) rankedIds.size());
+        productResponse.setTotalPages((int) Math.ceil((double) rankedIds.size() / pageSize));
+        productResponse.setLastPage(to >= rankedIds.size());
+        return productResponse;
+    }
+
+    /**
+     * Answered from the facet bitmaps; only the requested page is loaded, in a single projection query.
+     * An empty result is not an error here, the facet counts still tell the customer what to relax.
+     */
+    @Override
+    public ProductFilterResponse filterProducts(ProductFilter filter, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        if (!sortBy.equals("productId") && !sortBy.equals("specialPrice")) {
+            throw new APIException("Filtered products can only be sorted by productId or specialPrice");
+        }
+        ProductFacetIndex.Result result = productFacetIndex.filter(filter,
+                sortBy.equals("specialPrice"), sortOrder.equalsIgnoreCase("desc"));
+        List<Long> matchingIds = result.productIds();
+
+        int from = Math.min(pageNumber * pageSize, matchingIds.size());
+        int to = Math.min(from + pageSize, matchingIds.size());
+        List<Long> pageIds = matchingIds.subList(from, to);
+
+        List<ProductDTO> productDTOS = List.of();
+        if (!pageIds.isEmpty()) {
+            Map<Long, ProductDTO> productsById = productRepository.findProductDTOsByIds(pageIds).stream()
+                    .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+            productDTOS = pageIds.stream()
+                    .map(productsById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        ProductFilterResponse response = new ProductFilterResponse();
+        response.setContent(productDTOS);
+        response.setPageNumber(pageNumber);
+        response.setPageSize(pageSize);
+        response.setTotalElements((long) matchingIds.size());
+        response.setTotalPages((int) Math.ceil((double) matchingIds.size() / pageSize));
+        response.setLastPage(to >= matchingIds.size());
+        response.setFacets(result.facets());
+        return response;
+    }
+
+    /**
+     * Totals are left empty when unknown; in slice mode they come from ProductCountCache, never from a COUNT(*).
+     */
+    private ProductResponse toProductResponse(Slice<ProductDTO> products, Long totalElements) {
+        ProductResponse productResponse = new ProductResponse();
+        productResponse.setContent(products.getContent());
+        productResponse.setPageNumber(products.getNumber());
+        productResponse.setPageSize(products.getSize());
+        productResponse.setTotalElements(totalElements);
+        productResponse.setTotalPages(totalElements == null ? null
+                : (int) Math.ceil((double) totalElements / products.getSize()));
+        productResponse.setLastPage(products.isLast());
         return productResponse;
     }
 
     @Override
+    public ProductCursorResponse scrollAllProducts(String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Window<Product> window = productRepository.findAllBy(
+                ProductCursor.position(cursor, sortBy, sortOrder), Limit.of(pageSize), ProductCursor.sort(sortBy, sortOrder));
+        return toCursorResponse(window, pageSize, sortBy, sortOrder);
+    }
+
+    @Override
+    public ProductCursorResponse scrollByCategory(Long categoryId, String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Category", "categoryId", categoryId));
+
+        Window<Product> window = productRepository.findByCategory(category,
+                ProductCursor.position(cursor, sortBy, sortOrder), Limit.of(pageSize), ProductCursor.sort(sortBy, sortOrder));
+
+        if (cursor == null && window.isEmpty()) {
+            throw new APIException(category.getCategoryName() + " category does not have any products");
+        }
+        return toCursorResponse(window, pageSize, sortBy, sortOrder);
+    }
+
+    @Override
+    public ProductCursorResponse scrollProductByKeyword(String keyword, String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Window<Product> window = productRepository.findByProductNameLikeIgnoreCase('%' + keyword + '%',
+                ProductCursor.position(cursor, sortBy, sortOrder), Limit.of(pageSize), ProductCursor.sort(sortBy, sortOrder));
+
+        if (cursor == null && window.isEmpty()) {
+            throw new APIException("Products not found with keyword: " + keyword);
+        }
+        return toCursorResponse(window, pageSize, sortBy, sortOrder);
+    }
+
+    private ProductCursorResponse toCursorResponse(Window<Product> window, Integer pageSize, String sortBy, String sortOrder) {
+        List<ProductDTO> productDTOS = window.getContent().stream()
+                .map(ProductMapper::toDTO)
+                .toList();
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? ProductCursor.encode(window.getContent().get(window.size() - 1), sortBy, sortOrder)
+                : null;
+
+        return new ProductCursorResponse(productDTOS, pageSize, nextCursor, nextCursor == null);
+    }
+
+    /**
+     * The product row and the cart lines repriced from it commit together.
+     */
+    @Override
+    @Transactional
     public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
         Product productFromDb = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        Product product = modelMapper.map(productDTO, Product.class);
+        Product product = ProductMapper.toEntity(productDTO);
 
         productFromDb.setProductName(product.getProductName());
         productFromDb.setDescription(product.getDescription());
         productFromDb.setQuantity(product.getQuantity());
         productFromDb.setDiscount(product.getDiscount());
         productFromDb.setPrice(product.getPrice());
-        productFromDb.setSpecialPrice(product.getSpecialPrice());
+        double specialPrice = product.getPrice() -
+                ((product.getDiscount() * 0.01) * product.getPrice());
+        productFromDb.setSpecialPrice(specialPrice);
 
         Product savedProduct = productRepository.save(productFromDb);
+        productCache.invalidate(productId);
+        productSearchIndex.index(productId, savedProduct.getProductName(), savedProduct.getDescription());
+        productSuggester.catalogChanged();
+        menuSnapshot.catalogChanged();
+        catalogVersion.productChanged(productId, categoryIdOf(savedProduct));
+        productFacetIndex.index(productId, categoryIdOf(savedProduct), savedProduct.getSpecialPrice(),
+                savedProduct.getDiscount(), savedProduct.getQuantity());
 
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-
-        List<CartDTO> cartDTOs = carts.stream().map(cart -> {
-            CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-            List<ProductDTO> products = cart.getCartItems().stream()
-                    .map(p -> modelMapper.map(p.getProduct(), ProductDTO.class)).collect(Collectors.toList());
+        cartService.repriceProductInCarts(productId, savedProduct.getSpecialPrice(), savedProduct.getDiscount());
 
-            cartDTO.setProducts(products);
+        return ProductMapper.toDTO(savedProduct);
+    }
 
-            return cartDTO;
+    /**
+     * Applies one operation to a category or an id list in a single transaction: one UPDATE on products,
+     * and for price or discount changes two more that reprice open cart lines and re-total their carts.
+     * A category is matched inside each statement, so its product ids are never loaded.
+     * The product read caches are dropped once for the whole batch.
+     */
+    @Override
+    @Transactional
+    public ProductBulkUpdateResponse bulkUpdate(ProductBulkUpdateRequest request) {
+        List<Long> productIds = selectBulkProducts(request);
+        Long categoryId = productIds == null ? request.getCategoryId() : null;
+
+        double value = request.getValue();
+        int updatedProducts;
+        switch (request.getOperation()) {
+            case PRICE_PERCENT -> {
+                if (value <= -100) {
+                    throw new APIException("Price change must be greater than -100%");
+                }
+                double factor = 1 + value * 0.01;
+                updatedProducts = categoryId != null
+                        ? productRepository.scalePricesInCategory(categoryId, factor)
+                        : productRepository.scalePrices(productIds, factor);
+            }
+            case DISCOUNT -> {
+                if (value < 0 || value > 100) {
+                    throw new APIException("Discount must be between 0 and 100");
+                }
+                updatedProducts = categoryId != null
+                        ? productRepository.updateDiscountsInCategory(categoryId, value)
+                        : productRepository.updateDiscounts(productIds, value);
+            }
+            case STOCK -> {
+                if (value < 0 || value != Math.floor(value)) {
+                    throw new APIException("Stock must be a whole number, 0 or more");
+                }
+                updatedProducts = categoryId != null
+                        ? productRepository.updateStockInCategory(categoryId, (int) value)
+                        : productRepository.updateStock(productIds, (int) value);
+            }
+            default -> throw new APIException("Unsupported operation: " + request.getOperation());
+        }
+        if (updatedProducts == 0) {
+            throw new APIException("No products match the selection");
+        }
 
-        }).collect(Collectors.toList());
+        int updatedCartLines = 0;
+        if (request.getOperation() != ProductBulkOperation.STOCK) {
+            updatedCartLines = categoryId != null
+                    ? cartService.repriceCategoryInCarts(categoryId)
+                    : cartService.repriceProductsInCarts(productIds);
+        }
 
-        cartDTOs.forEach(cart -> cartService.updateProductInCarts(cart.getCartId(), productId));
+        productCache.invalidateAll();
+        menuSnapshot.catalogChanged();
+        catalogVersion.catalogChanged();
+        productFacetIndex.reindex(categoryId != null
+                ? productRepository.findFacetFieldsByCategoryId(categoryId)
+                : productRepository.findFacetFieldsByIds(productIds));
+        return new ProductBulkUpdateResponse(request.getOperation(), updatedProducts, updatedCartLines);
+    }
 
-        return modelMapper.map(savedProduct, ProductDTO.class);
+    /**
+     * The existing ids of an id-list selection, or null for a category selection.
+     */
+    private List<Long> selectBulkProducts(ProductBulkUpdateRequest request) {
+        boolean byCategory = request.getCategoryId() != null;
+        boolean byIds = request.getProductIds() != null && !request.getProductIds().isEmpty();
+        if (byCategory == byIds) {
+            throw new APIException("Select products by categoryId or by productIds, not both");
+        }
+        if (byCategory) {
+            Long categoryId = request.getCategoryId();
+            if (!categoryRepository.existsById(categoryId)) {
+                throw new ResourceNotFoundException("Category", "categoryId", categoryId);
+            }
+            return null;
+        }
+        List<Long> productIds = productRepository.findExistingIds(request.getProductIds());
+        if (productIds.isEmpty()) {
+            throw new APIException("No products match the selection");
+        }
+        return productIds;
     }
 
     @Override
@@ -206,11 +440,24 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
         // DELETE
+        if (cartStore != null) {
+            // Resident carts may hold lines that are not written yet
+            cartStore.evictCartsWithProducts(List.of(productId));
+        }
         List<Cart> carts = cartRepository.findCartsByProductId(productId);
         carts.forEach(cart -> cartService.deleteProductFromCart(cart.getCartId(), productId));
 
         productRepository.delete(product);
-        return modelMapper.map(product, ProductDTO.class);
+        productCache.invalidate(productId);
+        productSearchIndex.remove(productId);
+        productSuggester.catalogChanged();
+        menuSnapshot.catalogChanged();
+        catalogVersion.productChanged(productId, categoryIdOf(product));
+        productFacetIndex.remove(productId);
+        if (product.getCategory() != null) {
+            productCountCache.productRemoved(product.getCategory().getCategoryId());
+        }
+        return ProductMapper.toDTO(product);
     }
 
     @Override
@@ -222,32 +469,48 @@ public class ProductServiceImpl implements ProductService {
         productFromDb.setImage(fileName);
 
         Product updatedProduct = productRepository.save(productFromDb);
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        productCache.invalidate(productId);
+        menuSnapshot.catalogChanged();
+        catalogVersion.productChanged(productId, categoryIdOf(updatedProduct));
+        return ProductMapper.toDTO(updatedProduct);
     }
 
     @Override
-    public ProductDTO getProductById(Long productId) {
+    @Transactional
+    public Set<String> updateProductTags(Long productId, Set<String> tags) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
-        return modelMapper.map(product, ProductDTO.class);
+
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String value = ProductFacetIndex.normalizeTag(tag);
+            if (!value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        product.getTags().clear();
+        product.getTags().addAll(normalized);
+        productFacetIndex.updateTags(productId, normalized);
+        return normalized;
+    }
+
+    private static Long categoryIdOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getCategoryId() : null;
+    }
+
+    @Override
+    public ProductDTO getProductById(Long productId) {
+        return productCache.getProduct(productId, this::loadIndividualProduct);
     }
 
     @Override
     public IndividualProductDTO getIndividualProduct(Long productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+        return productCache.get(productId, this::loadIndividualProduct);
+    }
 
-        return new IndividualProductDTO(
-                product.getProductId(),
-                product.getProductName(),
-                product.getImage(),
-                product.getDescription(),
-                product.getQuantity(),
-                product.getCategory().getCategoryId(), // Use categoryId
-                product.getPrice(),
-                product.getDiscount(),
-                product.getSpecialPrice()
-        );
+    private IndividualProductDTO loadIndividualProduct(Long productId) {
+        return productRepository.findIndividualProductById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
     }
 
 
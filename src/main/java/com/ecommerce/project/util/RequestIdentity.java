@@ -0,0 +1,49 @@
+package com.ecommerce.project.util;
+
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repositories.UserRepository;
+import com.ecommerce.project.security.services.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Identity of the caller for the current request. Id and email come from the authenticated
+ * principal; the User entity is only loaded when asked for, and then at most once per request.
+ */
+@Component
+@RequestScope
+public class RequestIdentity {
+
+    @Autowired
+    UserRepository userRepository;
+
+    private UserDetailsImpl userDetails;
+
+    private User user;
+
+    public UserDetailsImpl getUserDetails() {
+        if (userDetails == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+                userDetails = principal;
+            } else {
+                userDetails = UserDetailsImpl.build(getUser());
+            }
+        }
+        return userDetails;
+    }
+
+    public User getUser() {
+        if (user == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String username = userDetails != null ? userDetails.getUsername() : authentication.getName();
+            user = userRepository.findByUserName(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        }
+        return user;
+    }
+}
@@ -0,0 +1,120 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and start from V2.
+
+create table users (
+    user_id bigint not null auto_increment,
+    username varchar(20) not null,
+    email varchar(50) not null,
+    password varchar(120) not null,
+    primary key (user_id)
+);
+
+create table roles (
+    role_id integer not null auto_increment,
+    role_name enum ('ROLE_ADMIN','ROLE_SELLER','ROLE_USER'),
+    primary key (role_id)
+);
+
+create table user_role (
+    role_id integer not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+);
+
+create table addresses (
+    address_id bigint not null auto_increment,
+    user_id bigint,
+    building_name varchar(255) not null,
+    city varchar(255) not null,
+    country varchar(255) not null,
+    pincode varchar(255) not null,
+    state varchar(255) not null,
+    street varchar(255) not null,
+    primary key (address_id)
+);
+
+create table categories (
+    category_id bigint not null auto_increment,
+    category_name varchar(255) not null,
+    primary key (category_id)
+);
+
+create table products (
+    discount float(53) not null,
+    price float(53) not null,
+    quantity integer,
+    special_price float(53) not null,
+    category_id bigint,
+    product_id bigint not null auto_increment,
+    seller_id bigint,
+    description varchar(255) not null,
+    image varchar(255),
+    product_name varchar(255) not null,
+    primary key (product_id)
+);
+
+create table carts (
+    total_price float(53),
+    cart_id bigint not null auto_increment,
+    user_id bigint,
+    primary key (cart_id)
+);
+
+create table cart_items (
+    discount float(53) not null,
+    product_price float(53) not null,
+    quantity integer,
+    cart_id bigint,
+    cart_item_id bigint not null auto_increment,
+    product_id bigint,
+    primary key (cart_item_id)
+);
+
+create table payments (
+    payment_id bigint not null auto_increment,
+    payment_method varchar(255) not null,
+    pg_name varchar(255),
+    pg_payment_id varchar(255),
+    pg_response_message varchar(255),
+    pg_status varchar(255),
+    primary key (payment_id)
+);
+
+create table orders (
+    order_date date,
+    total_amount float(53),
+    address_id bigint,
+    order_id bigint not null auto_increment,
+    payment_id bigint,
+    email varchar(255) not null,
+    order_status varchar(255),
+    primary key (order_id)
+);
+
+create table order_items (
+    discount float(53) not null,
+    ordered_product_price float(53) not null,
+    quantity integer,
+    order_id bigint,
+    order_item_id bigint not null auto_increment,
+    product_id bigint,
+    primary key (order_item_id)
+);
+
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table carts add constraint UK64t7ox312pqal3p7fg9o503c2 unique (user_id);
+alter table orders add constraint UKhaujdjk1ohmeixjhnhslchrp1 unique (payment_id);
+
+alter table user_role add constraint FKt7e7djp752sqn6w22i6ocqy6q foreign key (role_id) references roles (role_id);
+alter table user_role add constraint FKj345gk1bovqvfame88rcx7yyx foreign key (user_id) references users (user_id);
+alter table addresses add constraint FK1fa36y2oqhao3wgg2rw1pi459 foreign key (user_id) references users (user_id);
+alter table products add constraint FKog2rp4qthbtt2lfyhfo32lsw9 foreign key (category_id) references categories (category_id);
+alter table products add constraint FKbgw3lyxhsml3kfqnfr45o0vbj foreign key (seller_id) references users (user_id);
+alter table carts add constraint FKb5o626f86h46m4s7ms6ginnop foreign key (user_id) references users (user_id);
+alter table cart_items add constraint FKpcttvuq4mxppo8sxggjtn5i2c foreign key (cart_id) references carts (cart_id);
+alter table cart_items add constraint FK1re40cjegsfvw58xrkdp6bac6 foreign key (product_id) references products (product_id);
+alter table orders add constraint FKhlglkvf5i60dv6dn397ethgpt foreign key (address_id) references addresses (address_id);
+alter table orders add constraint FK8aol9f99s97mtyhij0tvfj41f foreign key (payment_id) references payments (payment_id);
+alter table order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (order_id);
+alter table order_items add constraint FKocimc7dtr037rh4ls4l95nlfi foreign key (product_id) references products (product_id);
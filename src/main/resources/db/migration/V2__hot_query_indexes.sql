@@ -0,0 +1,19 @@
+-- OrderRepository.findByEmail
+create index idx_orders_email on orders (email);
+
+-- CartItemRepository.findCartItemByProductIdAndCartId and deleteCartItemByProductIdAndCartId
+create index idx_cart_items_cart_product on cart_items (cart_id, product_id);
+
+-- Category listings, filtered by category and sorted by one of the CatalogSort columns
+create index idx_products_category_price on products (category_id, price);
+create index idx_products_category_special_price on products (category_id, special_price);
+create index idx_products_category_name on products (category_id, product_name);
+
+-- Whole-catalog listings sorted by price
+create index idx_products_price on products (price);
+create index idx_products_special_price on products (special_price);
+
+-- CategoryRepository.findByCategoryName and listings sorted by categoryName
+create index idx_categories_name on categories (category_name);
+
+-- carts.user_id, used by CartRepository.findCartByEmail, is already indexed by its unique constraint
@@ -0,0 +1,11 @@
+-- Objects added to the entities after the V1 baseline: the product name index used by
+-- the import's existing-name lookups and the product_tags collection behind ProductFacetIndex.
+
+create index idx_products_name on products (product_name);
+
+create table product_tags (
+    product_id bigint not null,
+    tag varchar(255)
+);
+
+alter table product_tags add constraint FK5rk6s19k3risy7q7wqdr41uss foreign key (product_id) references products (product_id);
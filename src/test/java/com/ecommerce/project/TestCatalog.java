@@ -0,0 +1,88 @@
+package com.ecommerce.project;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repositories.CartRepository;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Builders for the categories, products and carts the Spring Boot tests start from. Products get
+ * a stock of 50 and a special price that matches their discount; cart lines are priced at it.
+ */
+@Component
+public class TestCatalog {
+
+    public record Line(Product product, int quantity) {
+    }
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public Category category(String name) {
+        Category category = new Category();
+        category.setCategoryName(name);
+        return categoryRepository.save(category);
+    }
+
+    public Product product(Category category, String name, double price) {
+        return product(category, name, price, 0);
+    }
+
+    public Product product(Category category, String name, double price, double discount) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("Pizza de prueba");
+        product.setQuantity(50);
+        product.setPrice(price);
+        product.setDiscount(discount);
+        product.setSpecialPrice(price - discount * 0.01 * price);
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+
+    public User user(String username) {
+        return userRepository.findByUserName(username).orElseThrow();
+    }
+
+    /**
+     * A cart holding each product with the same quantity.
+     */
+    public Cart cart(User user, List<Product> products, int quantity) {
+        return cart(user, products.stream().map(product -> new Line(product, quantity)).toArray(Line[]::new));
+    }
+
+    /**
+     * A cart with the given lines and their total. The user may be null.
+     */
+    public Cart cart(User user, Line... lines) {
+        Cart cart = new Cart();
+        cart.setUser(user);
+        double total = 0;
+        for (Line line : lines) {
+            Product product = line.product();
+            cart.getCartItems().add(new CartItem(null, cart, product, line.quantity(),
+                    product.getDiscount(), product.getSpecialPrice()));
+            total += product.getSpecialPrice() * line.quantity();
+        }
+        cart.setTotalPrice(total);
+        return cartRepository.save(cart);
+    }
+}
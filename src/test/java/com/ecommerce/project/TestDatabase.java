@@ -0,0 +1,35 @@
+package com.ecommerce.project;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The H2 database of the test profile is shared by every Spring Boot test in the run, so each one
+ * starts by emptying the catalog and order tables, children first.
+ */
+public final class TestDatabase {
+
+    private static final String[] TABLES = {
+            "order_items", "orders", "payments", "cart_items", "carts", "product_tags", "products", "categories"};
+
+    private TestDatabase() {
+    }
+
+    public static void clear(JdbcTemplate jdbcTemplate) {
+        for (String table : TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    /**
+     * Hibernate statistics, cleared, for counting the statements of what runs next. The test needs
+     * spring.jpa.properties.hibernate.generate_statistics=true.
+     */
+    public static Statistics statistics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.TestCatalog;
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@WithMockUser
+class CatalogConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestCatalog testCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Category category;
+    private Product margarita;
+    private Product pepperoni;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+
+        category = testCatalog.category("Pizzas clasicas");
+        margarita = testCatalog.product(category, "Margarita", 120.0);
+        pepperoni = testCatalog.product(category, "Pepperoni", 140.0);
+    }
+
+    @Test
+    void revalidationRunsNoSql() throws Exception {
+        String[] urls = {
+                "/api/public/products",
+                "/api/public/categories",
+                "/api/public/categories/" + category.getCategoryId() + "/products",
+                "/api/public/products/" + margarita.getProductId()
+        };
+        String[] etags = new String[urls.length];
+        for (int i = 0; i < urls.length; i++) {
+            etags[i] = etagOf(urls[i]);
+        }
+
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+        for (int i = 0; i < urls.length; i++) {
+            mockMvc.perform(get(urls[i]).header(HttpHeaders.IF_NONE_MATCH, etags[i]))
+                    .andExpect(status().isNotModified());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void productWriteChangesOnlyTheAffectedEtags() throws Exception {
+        String listing = etagOf("/api/public/products");
+        String byCategory = etagOf("/api/public/categories/" + category.getCategoryId() + "/products");
+        String updated = etagOf("/api/public/products/" + margarita.getProductId());
+        String untouched = etagOf("/api/public/products/" + pepperoni.getProductId());
+
+        productService.updateProduct(margarita.getProductId(),
+                new ProductDTO(null, "Margarita", null, "Pizza de prueba", 10, 130.0, 0, 0));
+
+        mockMvc.perform(get("/api/public/products").header(HttpHeaders.IF_NONE_MATCH, listing))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/categories/" + category.getCategoryId() + "/products")
+                        .header(HttpHeaders.IF_NONE_MATCH, byCategory))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/products/" + margarita.getProductId()).header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/products/" + pepperoni.getProductId()).header(HttpHeaders.IF_NONE_MATCH, untouched))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, url);
+        return etag;
+    }
+}
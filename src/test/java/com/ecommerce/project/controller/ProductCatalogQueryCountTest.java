@@ -0,0 +1,84 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.TestCatalog;
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ProductCatalogQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestCatalog testCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+
+        Category category = testCatalog.category("Pizzas clasicas");
+        products.clear();
+        for (int i = 0; i < 5; i++) {
+            products.add(testCatalog.product(category, "Pizza " + i, 100.0 + i));
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void catalogPageQueryCountDoesNotGrowWithCarts() throws Exception {
+        long withoutCarts = statementsForCatalogPage();
+
+        addCarts(50);
+        long withCarts = statementsForCatalogPage();
+
+        assertEquals(withoutCarts, withCarts);
+        // One projection query (the count is skipped for a partial first page), no entity or collection loaded
+        assertEquals(1, withCarts);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    private long statementsForCatalogPage() throws Exception {
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+        mockMvc.perform(get("/api/public/products")).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addCarts(int count) {
+        for (int i = 0; i < count; i++) {
+            testCatalog.cart(null, products, 1);
+        }
+    }
+}
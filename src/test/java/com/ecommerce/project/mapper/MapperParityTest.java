@@ -0,0 +1,103 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.*;
+import com.ecommerce.project.payload.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hand-written mappers must produce exactly what the reflective ModelMapper used to.
+ */
+class MapperParityTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private Product product;
+    private Address address;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category(3L, "Pizzas clasicas", null);
+        product = new Product();
+        product.setProductId(7L);
+        product.setProductName("Pizza Hawaiana");
+        product.setImage("hawaiana.png");
+        product.setDescription("Jamón y piña");
+        product.setQuantity(20);
+        product.setPrice(150.0);
+        product.setDiscount(10.0);
+        product.setSpecialPrice(135.0);
+        product.setCategory(category);
+
+        address = new Address("Avenida Reforma", "Torre Norte", "Puebla", "Puebla", "Mexico", "72000");
+        address.setAddressId(4L);
+    }
+
+    @Test
+    void productAndCategoryMatchModelMapper() {
+        assertEquals(modelMapper.map(product, ProductDTO.class), ProductMapper.toDTO(product));
+
+        ProductDTO productDTO = ProductMapper.toDTO(product);
+        Product expected = modelMapper.map(productDTO, Product.class);
+        Product actual = ProductMapper.toEntity(productDTO);
+        assertEquals(expected, actual);
+
+        Category category = product.getCategory();
+        assertEquals(modelMapper.map(category, CategoryDTO.class), CategoryMapper.toDTO(category));
+        CategoryDTO categoryDTO = new CategoryDTO(3L, "Pizzas clasicas");
+        assertEquals(modelMapper.map(categoryDTO, Category.class), CategoryMapper.toEntity(categoryDTO));
+    }
+
+    @Test
+    void addressMatchesModelMapper() {
+        assertEquals(modelMapper.map(address, AddressDTO.class), AddressMapper.toDTO(address));
+
+        AddressDTO addressDTO = AddressMapper.toDTO(address);
+        assertEquals(modelMapper.map(addressDTO, Address.class), AddressMapper.toEntity(addressDTO));
+    }
+
+    @Test
+    void orderMatchesModelMapper() {
+        Order order = new Order();
+        order.setOrderId(11L);
+        order.setEmail("cliente@pizza.mx");
+        order.setOrderDate(LocalDate.of(2026, 10, 1));
+        order.setTotalAmount(270.0);
+        order.setOrderStatus("Order Accepted !");
+        order.setAddress(address);
+        Payment payment = new Payment("CARD", "pi_123", "succeeded", "ok", "Stripe");
+        payment.setPaymentId(5L);
+        order.setPayment(payment);
+        order.getOrderItems().add(new OrderItem(12L, product, order, 2, 10.0, 135.0));
+
+        OrderDTO expected = modelMapper.map(order, OrderDTO.class);
+        expected.setOrderItems(order.getOrderItems().stream()
+                .map(item -> modelMapper.map(item, OrderItemDTO.class))
+                .toList());
+
+        assertEquals(expected, OrderMapper.toDTO(order));
+    }
+
+    @Test
+    void cartUsesCartQuantities() {
+        Cart cart = new Cart();
+        cart.setCartId(9L);
+        cart.setTotalPrice(405.0);
+        cart.getCartItems().add(new CartItem(1L, cart, product, 3, 10.0, 135.0));
+
+        CartDTO expected = modelMapper.map(cart, CartDTO.class);
+        ProductDTO line = modelMapper.map(product, ProductDTO.class);
+        line.setQuantity(3);
+        expected.setProducts(List.of(line));
+
+        CartDTO actual = CartMapper.toDTO(cart);
+        assertEquals(expected, actual);
+        assertEquals(20, product.getQuantity());
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.project.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN for the SQL behind the hot lookups against the schema built by the Flyway scripts,
+ * so dropping or renaming one of their indexes fails the build instead of turning into a table scan.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ordersByEmailUseTheEmailIndex() {
+        assertUsesIndex("SELECT * FROM orders WHERE email = 'cliente@pizza.com'", "idx_orders_email");
+    }
+
+    @Test
+    void cartItemLookupUsesTheCompositeIndex() {
+        assertUsesIndex("SELECT * FROM cart_items WHERE cart_id = 1 AND product_id = 2", "idx_cart_items_cart_product");
+    }
+
+    @Test
+    void categoryByNameUsesTheNameIndex() {
+        assertUsesIndex("SELECT * FROM categories WHERE category_name = 'Pizzas clasicas'", "idx_categories_name");
+    }
+
+    @Test
+    void catalogSortedByPriceReadsTheIndexInOrder() {
+        String plan = explain("SELECT * FROM products ORDER BY price LIMIT 50");
+        assertTrue(plan.contains("idx_products_price") && plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void categoryListingsUseACategoryIndex() {
+        for (String sortColumn : new String[]{"product_id", "product_name", "price", "special_price"}) {
+            String plan = explain("SELECT * FROM products WHERE category_id = 1 ORDER BY " + sortColumn + " LIMIT 50");
+            assertFalse(plan.contains("tableScan"), plan);
+            assertTrue(plan.contains("category_id = "), plan);
+        }
+    }
+
+    @Test
+    void cartByUserEmailUsesUniqueKeys() {
+        String plan = explain("SELECT c.* FROM carts c JOIN users u ON c.user_id = u.user_id WHERE u.email = 'cliente@pizza.com'");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.PriceRangeCount;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductFilterResponse;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductFacetIndexTest {
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category pizzas;
+    private Category bebidas;
+    private Product margarita;
+    private Product vegetariana;
+    private Product pepperoni;
+    private Product limonada;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+        pizzas = category("Pizzas clasicas");
+        bebidas = category("Bebidas frias");
+
+        margarita = product("Margarita", pizzas, 90.0, 0, 10);
+        vegetariana = product("Vegetariana", pizzas, 120.0, 10, 5);
+        pepperoni = product("Pepperoni", pizzas, 140.0, 0, 0);
+        limonada = product("Limonada", bebidas, 40.0, 0, 20);
+        productFacetIndex.build();
+
+        productService.updateProductTags(margarita.getProductId(), Set.of("Vegetariana"));
+        productService.updateProductTags(vegetariana.getProductId(), Set.of("vegetariana", "Sin gluten"));
+    }
+
+    @Test
+    void combinesFacetsAndCountsTheResult() {
+        ProductFilter filter = new ProductFilter(Set.of(pizzas.getCategoryId()), Set.of("vegetariana"), null, 130.0, false, true);
+
+        ProductFilterResponse response = productService.filterProducts(filter, 0, 10, "specialPrice", "asc");
+
+        assertEquals(List.of(margarita.getProductId(), vegetariana.getProductId()), ids(response));
+        assertEquals(Map.of(pizzas.getCategoryId(), 2), response.getFacets().getCategories());
+        assertEquals(Map.of("vegetariana", 2, "sin gluten", 1), response.getFacets().getTags());
+        assertEquals(1, response.getFacets().getDiscounted());
+        assertEquals(2, response.getFacets().getInStock());
+        assertEquals(List.of(new PriceRangeCount(50, 100, 1), new PriceRangeCount(100, 150, 1)),
+                response.getFacets().getPrices());
+    }
+
+    @Test
+    void priceRangeIsExactInsideBuckets() {
+        ProductFilter filter = new ProductFilter(null, null, 95.0, 140.0, false, false);
+
+        ProductFilterResponse response = productService.filterProducts(filter, 0, 10, "productId", "asc");
+
+        assertEquals(List.of(vegetariana.getProductId(), pepperoni.getProductId()), ids(response));
+    }
+
+    @Test
+    void followsProductWrites() {
+        ProductFilter discountedInStock = new ProductFilter(null, null, null, null, true, true);
+        assertEquals(List.of(vegetariana.getProductId()), ids(productService.filterProducts(discountedInStock, 0, 10, "productId", "asc")));
+
+        productService.updateProduct(pepperoni.getProductId(),
+                new ProductDTO(null, "Pepperoni", null, "Pizza de prueba", 8, 140.0, 20, 0));
+        productService.deleteProduct(vegetariana.getProductId());
+
+        ProductFilterResponse response = productService.filterProducts(discountedInStock, 0, 10, "productId", "asc");
+        assertEquals(List.of(pepperoni.getProductId()), ids(response));
+        assertEquals(Map.of("vegetariana", 1), productService.filterProducts(new ProductFilter(), 0, 10, "productId", "asc")
+                .getFacets().getTags());
+    }
+
+    private static List<Long> ids(ProductFilterResponse response) {
+        return response.getContent().stream().map(ProductDTO::getProductId).toList();
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setCategoryName(name);
+        return categoryRepository.save(category);
+    }
+
+    private Product product(String name, Category category, double price, double discount, int quantity) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("Pizza de prueba");
+        product.setQuantity(quantity);
+        product.setPrice(price);
+        product.setDiscount(discount);
+        product.setSpecialPrice(price - discount * 0.01 * price);
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+}
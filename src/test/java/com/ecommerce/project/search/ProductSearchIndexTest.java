@@ -0,0 +1,57 @@
+package com.ecommerce.project.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(1L, "Pizza Hawaiana", "Jamón y piña con queso mozzarella");
+        index.index(2L, "Cuatro Quesos", "Mozzarella, gorgonzola, parmesano y queso de cabra");
+        index.index(3L, "Pepperoni", "Pepperoni con queso y salsa de tomate");
+        index.index(4L, "Refresco de Piña", "Bebida fría");
+    }
+
+    @Test
+    void accentsAndCaseAreFolded() {
+        assertEquals(List.of(4L, 1L), index.search("PIÑA"));
+        assertEquals(List.of(1L), index.search("jamon"));
+    }
+
+    @Test
+    void pluralsMatchSingulars() {
+        assertEquals(List.of(2L), index.search("cuatro queso"));
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        List<Long> results = index.search("queso");
+
+        assertEquals(2L, results.get(0));
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    void lastTermMatchesAsPrefix() {
+        assertEquals(List.of(3L), index.search("pepp"));
+        assertEquals(List.of(), index.search("pizza pepp"));
+    }
+
+    @Test
+    void updatesAndRemovalsAreApplied() {
+        index.index(3L, "Pepperoni Picante", "Con chile");
+        assertEquals(List.of(3L), index.search("picante"));
+        assertFalse(index.search("tomate").contains(3L));
+
+        index.remove(3L);
+        assertEquals(List.of(), index.search("pepperoni"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.payload.SuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionTrieTest {
+
+    private SuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        List<SuggestionDTO> suggestions = List.of(
+                new SuggestionDTO("Pizza Hawaiana", "product", 1L),
+                new SuggestionDTO("Pizza Pepperoni", "product", 2L),
+                new SuggestionDTO("Piña Colada", "product", 3L),
+                new SuggestionDTO("Pizzas Especiales", "category", 1L));
+        long[] unitsSold = {40, 90, 5, 130};
+        trie = SuggestionTrie.build(suggestions, unitsSold, 3);
+    }
+
+    private List<String> texts(String prefix, int limit) {
+        return trie.lookup(prefix, limit).stream().map(SuggestionDTO::getText).toList();
+    }
+
+    @Test
+    void ranksByPopularityAndCapsAtLimit() {
+        assertEquals(List.of("Pizzas Especiales", "Pizza Pepperoni", "Pizza Hawaiana"), texts("piz", 10));
+        assertEquals(List.of("Pizzas Especiales"), texts("piz", 1));
+    }
+
+    @Test
+    void nonPositiveLimitReturnsNothing() {
+        assertEquals(List.of(), texts("piz", 0));
+        assertEquals(List.of(), texts("piz", -1));
+    }
+
+    @Test
+    void matchesAnyWordIgnoringCaseAndAccents() {
+        assertEquals(List.of("Pizza Hawaiana"), texts("HAW", 10));
+        assertEquals(List.of("Piña Colada"), texts("pina", 10));
+        assertEquals(List.of("Pizza Pepperoni"), texts("pizza  pep", 10));
+    }
+
+    @Test
+    void unknownOrBlankPrefixReturnsNothing() {
+        assertEquals(List.of(), texts("xyz", 10));
+        assertEquals(List.of(), texts("  ", 10));
+    }
+}
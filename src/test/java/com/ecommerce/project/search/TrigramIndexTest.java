@@ -0,0 +1,57 @@
+package com.ecommerce.project.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.add(1L, "Pizza Hawaiana");
+        index.add(2L, "Cuatro Quesos");
+        index.add(3L, "Pepperoni");
+        index.add(4L, "Refresco de Piña");
+    }
+
+    @Test
+    void misspelledNamesAreFound() {
+        assertEquals(List.of(3L), index.search("peperoni"));
+        assertEquals(List.of(1L), index.search("hawaina"));
+        assertEquals(List.of(2L), index.search("cuatro queso"));
+        assertEquals(List.of(4L), index.search("refresco pina"));
+    }
+
+    @Test
+    void unrelatedQueriesFindNothing() {
+        assertEquals(List.of(), index.search("hamburguesa"));
+        assertEquals(List.of(), index.search("pizza margarita"));
+    }
+
+    @Test
+    void updatesRemovalsAndCompactionAreApplied() {
+        index.add(3L, "Diavola");
+        assertEquals(List.of(), index.search("peperoni"));
+        assertEquals(List.of(3L), index.search("diabola"));
+
+        for (long id = 100; id < 300; id++) {
+            index.add(id, "Especial " + id);
+            index.remove(id);
+        }
+        index.remove(1L);
+        assertEquals(List.of(), index.search("hawaina"));
+        assertEquals(List.of(2L), index.search("cuatro queso"));
+    }
+
+    @Test
+    void distanceStopsAtTheBound() {
+        assertEquals(1, TrigramIndex.boundedDistance("peperoni", "pepperoni", 2));
+        assertEquals(3, TrigramIndex.boundedDistance("hamburguesa", "hawaiana", 2));
+    }
+}
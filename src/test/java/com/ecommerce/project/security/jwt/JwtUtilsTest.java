@@ -0,0 +1,90 @@
+package com.ecommerce.project.security.jwt;
+
+import com.ecommerce.project.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "jdksFernqpwoFrierenzmxvbcJTLwiFernFrierenaslkdjfhg");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3000000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtCookie", "SpringOreoxD");
+        ReflectionTestUtils.setField(jwtUtils, "jwtRolesTtlMs", 300000L);
+        ReflectionTestUtils.setField(jwtUtils, "jwtCacheSize", 100);
+    }
+
+    private UserDetailsImpl user() {
+        List<GrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_USER"),
+                new SimpleGrantedAuthority("ROLE_ADMIN"));
+        return new UserDetailsImpl(7L, "admin", "admin@example.com", "secret", authorities);
+    }
+
+    @Test
+    void userDetailsAreRebuiltFromClaims() {
+        String token = jwtUtils.generateTokenFromUsername(user());
+
+        UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromClaims(jwtUtils.parseJwtToken(token));
+
+        assertNotNull(userDetails);
+        assertEquals(7L, userDetails.getId());
+        assertEquals("admin", userDetails.getUsername());
+        assertEquals("admin@example.com", userDetails.getEmail());
+        assertNull(userDetails.getPassword());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void rolesOlderThanTtlAreNotTrusted() {
+        String token = jwtUtils.generateTokenFromUsername(user());
+        ReflectionTestUtils.setField(jwtUtils, "jwtRolesTtlMs", -1L);
+
+        assertNull(jwtUtils.getUserDetailsFromClaims(jwtUtils.parseJwtToken(token)));
+        assertEquals("admin", jwtUtils.getUserNameFromJwtToken(token));
+    }
+
+    @Test
+    void verifiedTokensAreServedFromCache() {
+        String token = jwtUtils.generateTokenFromUsername(user());
+
+        Claims first = jwtUtils.parseJwtToken(token);
+        Claims second = jwtUtils.parseJwtToken(token);
+
+        assertNotNull(first);
+        assertSame(first, second);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtUtils.generateTokenFromUsername(user());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(jwtUtils.parseJwtToken(tampered));
+        assertFalse(jwtUtils.validateJwtToken(tampered));
+    }
+
+    @Test
+    void refreshedTokenKeepsTheOriginalIdAndExpiry() {
+        Claims original = jwtUtils.parseJwtToken(jwtUtils.generateTokenFromUsername(user()));
+        String cookie = jwtUtils.generateRefreshedJwtCookie(user(), original).getValue();
+
+        Claims refreshed = jwtUtils.parseJwtToken(cookie);
+
+        assertEquals(original.getId(), refreshed.getId());
+        assertEquals(original.getExpiration(), refreshed.getExpiration());
+    }
+}
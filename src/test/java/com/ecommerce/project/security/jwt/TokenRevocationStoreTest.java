@@ -0,0 +1,123 @@
+package com.ecommerce.project.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TokenRevocationStore newStore(int capacity) {
+        TokenRevocationStore store = new TokenRevocationStore();
+        ReflectionTestUtils.setField(store, "capacity", capacity);
+        ReflectionTestUtils.setField(store, "tokenTtlMs", 60_000L);
+        ReflectionTestUtils.setField(store, "snapshotFile", tempDir.resolve("revoked-tokens.dat").toString());
+        store.init();
+        return store;
+    }
+
+    private static Claims token(String jti, String username, long issuedAt, long expiresAt) {
+        return Jwts.claims().id(jti).subject(username)
+                .issuedAt(new Date(issuedAt)).expiration(new Date(expiresAt)).build();
+    }
+
+    private static Claims token(String jti, long expiresAt) {
+        return token(jti, "user1", System.currentTimeMillis() - 1_000, expiresAt);
+    }
+
+    @Test
+    void revokedTokenIsRejectedUntilItExpires() {
+        TokenRevocationStore store = newStore(100);
+        long now = System.currentTimeMillis();
+
+        store.revoke(token("live", now + 60_000));
+        store.revoke(token("expired", now - 1));
+
+        assertTrue(store.isRevoked(token("live", now + 60_000)));
+        assertFalse(store.isRevoked(token("expired", now - 1)));
+        assertFalse(store.isRevoked(token("never-revoked", now + 60_000)));
+        assertFalse(store.isRevoked(token(null, now + 60_000)));
+    }
+
+    @Test
+    void revocationsSurviveRestart() {
+        TokenRevocationStore store = newStore(100);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        store.revoke(token("jti-1", expiresAt));
+        store.shutdown();
+
+        TokenRevocationStore restarted = newStore(100);
+
+        assertTrue(restarted.isRevoked(token("jti-1", expiresAt)));
+        assertEquals(1, restarted.size());
+    }
+
+    @Test
+    void signoutDoesNotWriteTheSnapshot() {
+        TokenRevocationStore store = newStore(100);
+        Path snapshot = tempDir.resolve("revoked-tokens.dat");
+
+        store.revoke(token("jti-1", System.currentTimeMillis() + 60_000));
+        assertFalse(Files.exists(snapshot));
+
+        store.saveIfDirty();
+        assertTrue(Files.exists(snapshot));
+    }
+
+    @Test
+    void fullStoreStaysBoundedAndSignsTheUserOutEverywhere() {
+        TokenRevocationStore store = newStore(10);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            store.revoke(token("jti-" + i, "user" + i, now - 1_000, now + 60_000));
+        }
+
+        Claims otherDevice = token("other-device", "admin", now - 5_000, now + 60_000);
+        for (int i = 0; i < 25; i++) {
+            store.revoke(token("admin-" + i, "admin", now - 1_000, now + 60_000));
+        }
+
+        assertEquals(10, store.size());
+        assertEquals(1, store.cutoffs());
+        assertTrue(store.isRevoked(token("jti-0", "user0", now - 1_000, now + 60_000)));
+        assertTrue(store.isRevoked(token("admin-24", "admin", now - 1_000, now + 60_000)));
+        assertTrue(store.isRevoked(otherDevice));
+        assertFalse(store.isRevoked(token("admin-next", "admin", now + 2_000, now + 60_000)));
+        assertFalse(store.isRevoked(token("seller", "seller1", now - 1_000, now + 60_000)));
+    }
+
+    @Test
+    void userCutoffsSurviveRestart() {
+        TokenRevocationStore store = newStore(1);
+        long now = System.currentTimeMillis();
+        store.revoke(token("jti-1", "user1", now - 1_000, now + 60_000));
+        store.revoke(token("jti-2", "admin", now - 1_000, now + 60_000));
+        store.shutdown();
+
+        TokenRevocationStore restarted = newStore(1);
+
+        assertEquals(1, restarted.cutoffs());
+        assertTrue(restarted.isRevoked(token("jti-3", "admin", now - 1_000, now + 60_000)));
+    }
+
+    @Test
+    void capacityDefaultsToTwoTokenLifetimesOfSignouts() {
+        TokenRevocationStore store = new TokenRevocationStore();
+        ReflectionTestUtils.setField(store, "signoutsPerMinute", 100);
+        ReflectionTestUtils.setField(store, "tokenTtlMs", 30 * 60_000L);
+        ReflectionTestUtils.setField(store, "snapshotFile", tempDir.resolve("revoked-tokens.dat").toString());
+        store.init();
+
+        assertEquals(6000, store.capacity());
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.project.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static Claims claimsExpiringIn(long millis) {
+        return Jwts.claims().expiration(new Date(System.currentTimeMillis() + millis)).build();
+    }
+
+    @Test
+    void fullCacheAdmitsNewTokensByDroppingTheOldest() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(3);
+
+        for (int i = 0; i < 5; i++) {
+            cache.put("token-" + i, claimsExpiringIn(60_000));
+        }
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("token-0"));
+        assertNull(cache.get("token-1"));
+        assertNotNull(cache.get("token-4"));
+    }
+
+    @Test
+    void sweepDropsExpiredTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("expired", claimsExpiringIn(-1_000));
+        cache.put("live", claimsExpiringIn(60_000));
+
+        cache.evictExpired();
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("live"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.project.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void burstUpToCapacityThenRejects() {
+        RateLimiter limiter = new RateLimiter(3);
+
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"));
+
+        long waitNanos = limiter.tryAcquire("ip:10.0.0.1");
+        assertTrue(waitNanos > 0);
+        assertTrue(waitNanos <= 20_000_000_000L);
+    }
+
+    @Test
+    void bucketsAreIndependentPerKey() {
+        RateLimiter limiter = new RateLimiter(1);
+
+        assertEquals(0, limiter.tryAcquire("user:alice"));
+        assertTrue(limiter.tryAcquire("user:alice") > 0);
+        assertEquals(0, limiter.tryAcquire("user:bob"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void sweepDropsOnlyIdleBuckets() {
+        RateLimiter limiter = new RateLimiter(10);
+        limiter.tryAcquire("ip:10.0.0.1");
+        limiter.tryAcquire("ip:10.0.0.2");
+
+        limiter.sweepIdle();
+        assertEquals(2, limiter.size());
+
+        limiter.sweepIdle(System.nanoTime() + TimeUnit.MINUTES.toNanos(2));
+        assertEquals(0, limiter.size());
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.TestCatalog;
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.util.AuthUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CartLoadingQueryCountTest {
+
+    private static final String EMAIL = "user1@example.com";
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private TestCatalog testCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private AuthUtil authUtil;
+
+    private Cart cart;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+        when(authUtil.loggedInEmail()).thenReturn(EMAIL);
+
+        Category category = testCatalog.category("Pizzas clasicas");
+        products.clear();
+        for (int i = 0; i < 11; i++) {
+            products.add(testCatalog.product(category, "Pizza " + i, 100.0 + i));
+        }
+        cart = testCatalog.cart(testCatalog.user("user1"), products.subList(0, 10), 2);
+    }
+
+    @Test
+    void cartViewIsOneStatement() {
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+
+        CartDTO cartDTO = cartService.getCart(EMAIL, cart.getCartId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(10, cartDTO.getProducts().size());
+        assertTrue(cartDTO.getProducts().stream().allMatch(product -> product.getQuantity() == 2));
+    }
+
+    @Test
+    void quantityChangeReadsTheCartOnce() {
+        Product first = products.get(0);
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+
+        CartDTO cartDTO = cartService.updateProductQuantityInCart(first.getProductId(), 1);
+
+        // One SELECT for cart, lines and products, then the line and cart UPDATEs
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(3, quantityOf(cartDTO, first.getProductId()));
+    }
+
+    @Test
+    void addingAProductReturnsItInTheCart() {
+        Product extra = products.get(10);
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+
+        CartDTO cartDTO = cartService.addProductToCart(extra.getProductId(), 1);
+
+        // Cart graph and product SELECTs, the line INSERT and the cart UPDATE
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(11, cartDTO.getProducts().size());
+        assertEquals(cart.getTotalPrice() + extra.getSpecialPrice(), cartDTO.getTotalPrice(), 0.001);
+    }
+
+    @Test
+    void removingTheLastUnitDropsTheLine() {
+        Product first = products.get(0);
+        cartService.updateProductQuantityInCart(first.getProductId(), -1);
+
+        CartDTO cartDTO = cartService.updateProductQuantityInCart(first.getProductId(), -1);
+
+        assertEquals(9, cartDTO.getProducts().size());
+        assertEquals(9, cartService.getCart(EMAIL, cart.getCartId()).getProducts().size());
+        assertEquals(cart.getTotalPrice() - first.getSpecialPrice() * 2, cartDTO.getTotalPrice(), 0.001);
+    }
+
+    private static int quantityOf(CartDTO cartDTO, Long productId) {
+        return cartDTO.getProducts().stream()
+                .filter(product -> product.getProductId().equals(productId))
+                .mapToInt(ProductDTO::getQuantity)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.TestCatalog;
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.repositories.CartRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.search.ProductSuggester;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CartRepricingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestCatalog testCatalog;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Both rebuild on their own threads after a product change, which would show up in the statement count
+    @MockitoBean
+    private ProductSuggester productSuggester;
+
+    @MockitoBean
+    private MenuSnapshot menuSnapshot;
+
+    private Product hawaiana;
+    private Product refresco;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+
+        Category category = testCatalog.category("Pizzas clasicas");
+        hawaiana = testCatalog.product(category, "Hawaiana", 100.0);
+        refresco = testCatalog.product(category, "Refresco", 20.0);
+    }
+
+    @Test
+    void cartsAreRepricedWithAConstantNumberOfStatements() {
+        addCarts(3);
+        long fewCarts = statementsForPriceChange(120.0);
+
+        addCarts(30);
+        long manyCarts = statementsForPriceChange(150.0);
+
+        assertEquals(fewCarts, manyCarts);
+    }
+
+    @Test
+    void linesAndTotalsFollowTheNewSpecialPrice() {
+        addCarts(2);
+
+        ProductDTO updated = productService.updateProduct(hawaiana.getProductId(), dto(200.0, 10.0));
+
+        assertEquals(180.0, updated.getSpecialPrice(), 0.001);
+        assertEquals(180.0, productRepository.findById(hawaiana.getProductId()).orElseThrow().getSpecialPrice(), 0.001);
+        List<Object[]> lines = jdbcTemplate.query(
+                "SELECT product_price, discount FROM cart_items WHERE product_id = ?",
+                (rs, i) -> new Object[]{rs.getDouble(1), rs.getDouble(2)}, hawaiana.getProductId());
+        assertEquals(2, lines.size());
+        lines.forEach(line -> assertEquals(180.0, (double) line[0], 0.001));
+        lines.forEach(line -> assertEquals(10.0, (double) line[1], 0.001));
+        // Two Hawaianas at 180 plus one Refresco at 20
+        cartRepository.findAll().forEach(cart -> assertEquals(380.0, cart.getTotalPrice(), 0.001));
+    }
+
+    private long statementsForPriceChange(double price) {
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+        productService.updateProduct(hawaiana.getProductId(), dto(price, 0));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private ProductDTO dto(double price, double discount) {
+        return new ProductDTO(null, "Hawaiana", null, "Jamón y piña", 10, price, discount, 0);
+    }
+
+    private void addCarts(int count) {
+        for (int i = 0; i < count; i++) {
+            testCatalog.cart(null, new TestCatalog.Line(hawaiana, 2), new TestCatalog.Line(refresco, 1));
+        }
+    }
+}
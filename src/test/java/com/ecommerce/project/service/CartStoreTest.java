@@ -0,0 +1,232 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.TestCatalog;
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.util.AuthUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * The background flusher is pushed out to an hour, so the tests decide when carts are written.
+ */
+@SpringBootTest(properties = {
+        "spring.app.cartStoreEnabled=true",
+        "spring.app.cartFlushMs=3600000",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("test")
+class CartStoreTest {
+
+    private static final String EMAIL = "user1@example.com";
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private TestCatalog testCatalog;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private AuthUtil authUtil;
+
+    private Cart cart;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+        User user = testCatalog.user("user1");
+        when(authUtil.loggedInEmail()).thenReturn(EMAIL);
+        when(authUtil.loggedInUserId()).thenReturn(user.getUserId());
+
+        Category category = testCatalog.category("Pizzas clasicas");
+        products.clear();
+        for (int i = 0; i < 3; i++) {
+            products.add(testCatalog.product(category, "Pizza " + i, 100.0 + i));
+        }
+        cart = testCatalog.cart(user, products.subList(0, 1), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Write and drop every resident cart before the next test clears the tables
+        cartStore.flushRound(Long.MAX_VALUE);
+    }
+
+    @Test
+    void changesToAResidentCartStayInMemoryUntilFlushed() {
+        Product first = products.get(0);
+        cartService.getUserCart(EMAIL);
+        cartService.updateProductQuantityInCart(first.getProductId(), 1);
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+
+        CartDTO cartDTO = cartService.updateProductQuantityInCart(first.getProductId(), 1);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(4, cartDTO.getProducts().get(0).getQuantity());
+        assertEquals(first.getSpecialPrice() * 4, cartDTO.getTotalPrice(), 0.001);
+        assertEquals(2, storedQuantity(first));
+
+        cartStore.flushAll();
+
+        assertEquals(4, storedQuantity(first));
+        assertEquals(first.getSpecialPrice() * 4, storedTotal(), 0.001);
+    }
+
+    @Test
+    void flushWritesAddedAndRemovedLines() {
+        Product first = products.get(0);
+        Product second = products.get(1);
+        Product third = products.get(2);
+        cartService.addProductToCart(second.getProductId(), 3);
+        cartService.addProductToCart(third.getProductId(), 1);
+        cartService.updateProductQuantityInCart(first.getProductId(), -2);
+        cartService.deleteProductFromCart(cart.getCartId(), third.getProductId());
+
+        cartStore.flushAll();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE cart_id = ?", Integer.class, cart.getCartId()));
+        assertEquals(3, storedQuantity(second));
+        assertEquals(second.getSpecialPrice() * 3, storedTotal(), 0.001);
+    }
+
+    @Test
+    void checkoutWritesTheCartAndDropsIt() {
+        Product first = products.get(0);
+        cartService.updateProductQuantityInCart(first.getProductId(), 1);
+
+        cartStore.beginCheckout(EMAIL);
+
+        assertEquals(0, cartStore.residentCount());
+        assertEquals(3, storedQuantity(first));
+        cartStore.endCheckout(EMAIL, true);
+    }
+
+    @Test
+    void cartChangedDuringCheckoutIsNeverWrittenBack() {
+        Product first = products.get(0);
+        cartStore.beginCheckout(EMAIL);
+
+        // Reloads the cart while the order is being placed
+        cartService.updateProductQuantityInCart(first.getProductId(), 1);
+        cartStore.flushAll();
+        assertEquals(2, storedQuantity(first));
+
+        cartStore.endCheckout(EMAIL, true);
+        assertEquals(0, cartStore.residentCount());
+    }
+
+    @Test
+    void failedCheckoutKeepsTheCartChanges() {
+        Product first = products.get(0);
+        cartStore.beginCheckout(EMAIL);
+        cartService.updateProductQuantityInCart(first.getProductId(), 1);
+
+        cartStore.endCheckout(EMAIL, false);
+        cartStore.flushAll();
+
+        assertEquals(3, storedQuantity(first));
+    }
+
+    @Test
+    void idleCartsAreWrittenAndDropped() {
+        Product first = products.get(0);
+        cartService.updateProductQuantityInCart(first.getProductId(), 1);
+
+        cartStore.flushRound(System.currentTimeMillis());
+        assertEquals(1, cartStore.residentCount());
+
+        cartStore.flushRound(Long.MAX_VALUE);
+        assertEquals(0, cartStore.residentCount());
+        assertEquals(3, storedQuantity(first));
+    }
+
+    @Test
+    void repricingReachesResidentCarts() {
+        Product first = products.get(0);
+        cartService.updateProductQuantityInCart(first.getProductId(), 1);
+
+        cartService.repriceProductInCarts(first.getProductId(), 80.0, 20.0);
+
+        assertEquals(240.0, cartService.getUserCart(EMAIL).getTotalPrice(), 0.001);
+        cartStore.flushAll();
+        assertEquals(240.0, storedTotal(), 0.001);
+    }
+
+    @Test
+    void flushRacingWithARepriceKeepsTheNewPrice() {
+        Product first = products.get(0);
+        cartService.updateProductQuantityInCart(first.getProductId(), 1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            cartService.repriceProductInCarts(first.getProductId(), 80.0, 20.0);
+            // Would write the old price over the repriced line and drop the cart as idle
+            cartStore.flushRound(Long.MAX_VALUE);
+            assertEquals(1, cartStore.residentCount());
+        });
+
+        assertEquals(240.0, cartService.getUserCart(EMAIL).getTotalPrice(), 0.001);
+        cartStore.flushAll();
+        assertEquals(240.0, storedTotal(), 0.001);
+    }
+
+    @Test
+    void productsOfADeletedCategoryCannotBeAddedFromTheCache() {
+        Category bebidas = testCatalog.category("Bebidas frias");
+        Long refrescoId = testCatalog.product(bebidas, "Refresco", 20.0).getProductId();
+        productService.getIndividualProduct(refrescoId);
+
+        categoryService.deleteCategory(bebidas.getCategoryId());
+
+        assertThrows(ResourceNotFoundException.class, () -> cartService.addProductToCart(refrescoId, 1));
+    }
+
+    private int storedQuantity(Product product) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM cart_items WHERE cart_id = ? AND product_id = ?",
+                Integer.class, cart.getCartId(), product.getProductId());
+    }
+
+    private double storedTotal() {
+        return jdbcTemplate.queryForObject("SELECT total_price FROM carts WHERE cart_id = ?",
+                Double.class, cart.getCartId());
+    }
+}
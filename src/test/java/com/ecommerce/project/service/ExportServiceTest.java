@@ -0,0 +1,131 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.*;
+import com.ecommerce.project.repositories.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Product hawaiana;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+
+        Category category = new Category();
+        category.setCategoryName("Pizzas clasicas");
+        category = categoryRepository.save(category);
+
+        hawaiana = new Product();
+        hawaiana.setProductName("Hawaiana");
+        hawaiana.setDescription("Jamón, piña y queso");
+        hawaiana.setQuantity(10);
+        hawaiana.setPrice(150.0);
+        hawaiana.setSpecialPrice(150.0);
+        hawaiana.setCategory(category);
+        hawaiana = productRepository.save(hawaiana);
+
+        saveOrder(LocalDate.of(2026, 9, 1), "Completada", 2);
+        saveOrder(LocalDate.of(2026, 10, 1), "Completada", 1);
+        saveOrder(LocalDate.of(2026, 10, 2), "Cancelada", 3);
+    }
+
+    private void saveOrder(LocalDate date, String status, int lines) {
+        Order order = new Order();
+        order.setEmail("cliente@pizza.mx");
+        order.setOrderDate(date);
+        order.setOrderStatus(status);
+        order.setTotalAmount(150.0 * lines);
+        Payment payment = paymentRepository.save(new Payment("CASH", null, "pending", "Pending cash payment", "CASH"));
+        order.setPayment(payment);
+        order = orderRepository.save(order);
+        for (int i = 0; i < lines; i++) {
+            orderItemRepository.save(new OrderItem(null, hawaiana, order, 1, 0, 150.0));
+        }
+    }
+
+    @Test
+    void ordersAreGroupedAndFilteredInNdjson() throws IOException {
+        List<JsonNode> orders = ndjson(out -> exportService.exportOrders(out, ExportFormat.NDJSON,
+                LocalDate.of(2026, 10, 1), null, "Completada"));
+
+        assertEquals(1, orders.size());
+        assertEquals("2026-10-01", orders.get(0).get("orderDate").asText());
+        assertEquals(1, orders.get(0).get("items").size());
+
+        List<JsonNode> all = ndjson(out -> exportService.exportOrders(out, ExportFormat.NDJSON, null, null, null));
+        assertEquals(3, all.size());
+        assertEquals(List.of(2, 1, 3), all.stream().map(order -> order.get("items").size()).toList());
+    }
+
+    @Test
+    void csvHasOneLinePerOrderLineAndQuotesText() throws IOException {
+        String orders = export(out -> exportService.exportOrders(out, ExportFormat.CSV, null, LocalDate.of(2026, 9, 30), null));
+        assertEquals(3, orders.lines().count());
+
+        String products = export(out -> exportService.exportProducts(out, ExportFormat.CSV));
+        assertTrue(products.lines().anyMatch(line -> line.contains(",\"Jamón, piña y queso\",")));
+    }
+
+    private interface Export {
+        void writeTo(ByteArrayOutputStream out) throws IOException;
+    }
+
+    private String export(Export export) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<JsonNode> ndjson(Export export) throws IOException {
+        return export(export).lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.TestCatalog;
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@WithMockUser
+class MenuSnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MenuSnapshot menuSnapshot;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestCatalog testCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Product hawaiana;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+
+        Category category = testCatalog.category("Pizzas clasicas");
+        hawaiana = testCatalog.product(category, "Hawaiana", 150.0);
+
+        menuSnapshot.rebuild();
+    }
+
+    @Test
+    void steadyStateRequestsRunNoSql() throws Exception {
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+
+        MvcResult result = mockMvc.perform(get("/api/public/menu")).andExpect(status().isOk()).andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/public/menu").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        JsonNode menu = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Pizzas clasicas", menu.get("categories").get(0).get("categoryName").asText());
+        assertEquals("Hawaiana", menu.get("categories").get(0).get("products").get(0).get("productName").asText());
+    }
+
+    @Test
+    void gzipVariantHasTheSameContent() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/api/public/menu")).andReturn();
+        MvcResult gzip = mockMvc.perform(get("/api/public/menu").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk()).andReturn();
+
+        assertEquals("gzip", gzip.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(plain.getResponse().getHeader(HttpHeaders.ETAG), gzip.getResponse().getHeader(HttpHeaders.ETAG));
+        assertArrayEquals(plain.getResponse().getContentAsByteArray(), gunzip(gzip.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void catalogWritesReplaceTheSnapshot() throws Exception {
+        String before = menuSnapshot.current().etag();
+
+        productService.updateProduct(hawaiana.getProductId(),
+                new ProductDTO(null, "Hawaiana", null, "Jamón y piña", 10, 180.0, 0, 0));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (menuSnapshot.current().etag().equals(before) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertNotEquals(before, menuSnapshot.current().etag());
+        assertTrue(new String(menuSnapshot.current().json()).contains("180.0"));
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
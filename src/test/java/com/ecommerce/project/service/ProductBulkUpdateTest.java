@@ -0,0 +1,123 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.TestCatalog;
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductBulkOperation;
+import com.ecommerce.project.payload.ProductBulkUpdateRequest;
+import com.ecommerce.project.payload.ProductBulkUpdateResponse;
+import com.ecommerce.project.repositories.CartRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductBulkUpdateTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TestCatalog testCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category pizzas;
+    private Product hawaiana;
+    private Product pepperoni;
+    private Product refresco;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+
+        pizzas = testCatalog.category("Pizzas clasicas");
+        Category bebidas = testCatalog.category("Bebidas frias");
+        hawaiana = testCatalog.product(pizzas, "Hawaiana", 100.0, 10.0);
+        pepperoni = testCatalog.product(pizzas, "Pepperoni", 200.0);
+        refresco = testCatalog.product(bebidas, "Refresco", 20.0);
+        testCatalog.cart(null, new TestCatalog.Line(hawaiana, 2), new TestCatalog.Line(refresco, 1));
+    }
+
+    @Test
+    void percentPriceChangeByCategoryUpdatesSpecialPricesAndCarts() {
+        ProductBulkUpdateResponse response = productService.bulkUpdate(
+                new ProductBulkUpdateRequest(ProductBulkOperation.PRICE_PERCENT, 20.0, pizzas.getCategoryId(), null));
+
+        assertEquals(2, response.getUpdatedProducts());
+        assertEquals(1, response.getUpdatedCartLines());
+
+        Product updated = productRepository.findById(hawaiana.getProductId()).orElseThrow();
+        assertEquals(120.0, updated.getPrice(), 0.001);
+        assertEquals(108.0, updated.getSpecialPrice(), 0.001);
+        assertEquals(240.0, productRepository.findById(pepperoni.getProductId()).orElseThrow().getSpecialPrice(), 0.001);
+        assertEquals(20.0, productRepository.findById(refresco.getProductId()).orElseThrow().getPrice(), 0.001);
+        // Two Hawaianas at 108 plus one Refresco at 20
+        assertEquals(236.0, cartRepository.findAll().get(0).getTotalPrice(), 0.001);
+    }
+
+    @Test
+    void discountAndStockByIds() {
+        List<Long> ids = List.of(hawaiana.getProductId(), refresco.getProductId());
+        productService.bulkUpdate(new ProductBulkUpdateRequest(ProductBulkOperation.DISCOUNT, 50.0, null, ids));
+        ProductBulkUpdateResponse stock = productService.bulkUpdate(
+                new ProductBulkUpdateRequest(ProductBulkOperation.STOCK, 0.0, null, ids));
+
+        assertEquals(0, stock.getUpdatedCartLines());
+        Product updated = productRepository.findById(hawaiana.getProductId()).orElseThrow();
+        assertEquals(50.0, updated.getSpecialPrice(), 0.001);
+        assertEquals(0, updated.getQuantity());
+        assertEquals(110.0, cartRepository.findAll().get(0).getTotalPrice(), 0.001);
+        assertEquals(200.0, productRepository.findById(pepperoni.getProductId()).orElseThrow().getSpecialPrice(), 0.001);
+    }
+
+    @Test
+    void discountAndStockByCategory() {
+        productService.bulkUpdate(new ProductBulkUpdateRequest(ProductBulkOperation.DISCOUNT, 50.0, pizzas.getCategoryId(), null));
+        ProductBulkUpdateResponse stock = productService.bulkUpdate(
+                new ProductBulkUpdateRequest(ProductBulkOperation.STOCK, 5.0, pizzas.getCategoryId(), null));
+
+        assertEquals(2, stock.getUpdatedProducts());
+        assertEquals(5, productRepository.findById(pepperoni.getProductId()).orElseThrow().getQuantity());
+        assertEquals(100.0, productRepository.findById(pepperoni.getProductId()).orElseThrow().getSpecialPrice(), 0.001);
+        assertEquals(50, productRepository.findById(refresco.getProductId()).orElseThrow().getQuantity());
+        // Two Hawaianas at 50 plus one Refresco at 20
+        assertEquals(120.0, cartRepository.findAll().get(0).getTotalPrice(), 0.001);
+    }
+
+    @Test
+    void emptyCategoryMatchesNothing() {
+        Category empty = testCatalog.category("Postres");
+
+        assertThrows(APIException.class, () -> productService.bulkUpdate(
+                new ProductBulkUpdateRequest(ProductBulkOperation.STOCK, 5.0, empty.getCategoryId(), null)));
+    }
+
+    @Test
+    void invalidRequestsChangeNothing() {
+        assertThrows(APIException.class, () -> productService.bulkUpdate(new ProductBulkUpdateRequest(
+                ProductBulkOperation.DISCOUNT, 10.0, pizzas.getCategoryId(), List.of(hawaiana.getProductId()))));
+        assertThrows(APIException.class, () -> productService.bulkUpdate(new ProductBulkUpdateRequest(
+                ProductBulkOperation.DISCOUNT, 150.0, pizzas.getCategoryId(), null)));
+
+        assertEquals(90.0, productRepository.findById(hawaiana.getProductId()).orElseThrow().getSpecialPrice(), 0.001);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.payload.IndividualProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private ProductCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCache();
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+    }
+
+    private IndividualProductDTO load(Long productId) {
+        loads.incrementAndGet();
+        return new IndividualProductDTO(productId, "Pizza " + productId, "default.png",
+                "Pizza de prueba", 10, 1L, 100.0, 10.0, 90.0);
+    }
+
+    @Test
+    void secondReadIsServedFromCache() {
+        IndividualProductDTO first = cache.get(1L, this::load);
+        first.setQuantity(0);
+
+        IndividualProductDTO second = cache.get(1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(10, second.getQuantity());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        cache.get(1L, this::load);
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void missesAreNotCached() {
+        assertThrows(ResourceNotFoundException.class, () -> cache.get(9L, id -> {
+            throw new ResourceNotFoundException("Product", "productId", id);
+        }));
+
+        assertEquals("Pizza 9", cache.get(9L, this::load).getProductName());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] readers = new Future<?>[4];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = pool.submit(() -> cache.get(1L, id -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return load(id);
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> reader : readers) {
+                reader.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void sizeIsBounded() {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(3L, this::load);
+        cache.get(3L, this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(2, ((Map<?, ?>) ReflectionTestUtils.getField(cache, "entries")).size());
+    }
+
+    @Test
+    void sweepDropsExpiredEntriesAndStaleQueueElements() {
+        ReflectionTestUtils.setField(cache, "ttlMs", -1L);
+        cache.get(1L, this::load);
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+
+        cache.evictExpired();
+
+        assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(cache, "entries")).size());
+        assertEquals(0, ((Collection<?>) ReflectionTestUtils.getField(cache, "insertionOrder")).size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ProductCursorTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setCategoryName("Pizzas clasicas");
+        category = categoryRepository.save(category);
+
+        double[] prices = {120.0, 99.0, 150.0, 99.0, 80.0};
+        for (int i = 0; i < prices.length; i++) {
+            Product product = new Product();
+            product.setProductName("Pizza " + i);
+            product.setDescription("Pizza de prueba");
+            product.setQuantity(10);
+            product.setPrice(prices[i]);
+            product.setSpecialPrice(prices[i]);
+            product.setCategory(category);
+            productRepository.save(product);
+        }
+    }
+
+    private List<Double> scrollPrices(String sortOrder, int pageSize) {
+        List<Double> prices = new ArrayList<>();
+        String cursor = null;
+        do {
+            Window<Product> window = productRepository.findByCategory(category,
+                    ProductCursor.position(cursor, "price", sortOrder), Limit.of(pageSize),
+                    ProductCursor.sort("price", sortOrder));
+            window.forEach(product -> prices.add(product.getPrice()));
+            cursor = window.hasNext()
+                    ? ProductCursor.encode(window.getContent().get(window.size() - 1), "price", sortOrder)
+                    : null;
+        } while (cursor != null);
+        return prices;
+    }
+
+    @Test
+    void scrollsThroughEveryRowOnceInPriceOrder() {
+        assertEquals(List.of(80.0, 99.0, 99.0, 120.0, 150.0), scrollPrices("asc", 2));
+        assertEquals(List.of(150.0, 120.0, 99.0, 99.0, 80.0), scrollPrices("desc", 2));
+    }
+
+    @Test
+    void cursorForAnotherSortIsRejected() {
+        Product first = productRepository.findAll().get(0);
+        String cursor = ProductCursor.encode(first, "price", "asc");
+
+        assertThrows(RuntimeException.class, () -> ProductCursor.position(cursor, "productName", "asc"));
+        assertThrows(RuntimeException.class, () -> ProductCursor.position("not-a-cursor", "price", "asc"));
+        assertThrows(RuntimeException.class, () -> ProductCursor.sort("description", "asc"));
+    }
+}
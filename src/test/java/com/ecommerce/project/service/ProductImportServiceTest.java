@@ -0,0 +1,117 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductImportError;
+import com.ecommerce.project.payload.ProductImportResponse;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.clear(jdbcTemplate);
+
+        Category category = new Category();
+        category.setCategoryName("Pizzas clasicas");
+        category = categoryRepository.save(category);
+        categoryId = category.getCategoryId();
+
+        Product existing = new Product();
+        existing.setProductName("Pepperoni");
+        existing.setDescription("Pepperoni con queso");
+        existing.setQuantity(5);
+        existing.setCategory(category);
+        productRepository.save(existing);
+    }
+
+    @Test
+    void csvRowsAreValidatedAndReportedPerRow() throws IOException {
+        String csv = """
+                productName,description,quantity,price,discount,categoryId
+                Hawaiana,"Jamón, piña y queso",10,150,10,%1$d
+                Pepperoni,Ya existe en la carta,10,140,0,%1$d
+                Mexicana,Chorizo y jalapeño,8,abc,0,%1$d
+                Vegetariana,Verduras frescas,5,130,0,999999
+                Hawaiana,Repetida dentro del archivo,10,150,10,%1$d
+                """.formatted(categoryId);
+
+        ProductImportResponse response = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        assertEquals(5, response.getRowsRead());
+        assertEquals(1, response.getImported());
+        assertEquals(4, response.getRejected());
+        assertEquals(List.of(3L, 4L, 5L, 6L), response.getErrors().stream().map(ProductImportError::getRow).toList());
+
+        Product imported = productRepository.findAll().stream()
+                .filter(product -> product.getProductName().equals("Hawaiana"))
+                .findFirst().orElseThrow();
+        assertEquals("Jamón, piña y queso", imported.getDescription());
+        assertEquals(135.0, imported.getSpecialPrice(), 0.001);
+        assertEquals(categoryId, imported.getCategory().getCategoryId());
+    }
+
+    @Test
+    void ndjsonIsImportedAcrossSeveralChunks() throws IOException {
+        int rows = ProductImportServiceImpl.CHUNK_SIZE * 2 + 17;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            ndjson.append("{\"productName\":\"Especial ").append(i)
+                    .append("\",\"description\":\"Pizza especial\",\"quantity\":3,\"price\":99.5,\"categoryId\":")
+                    .append(categoryId).append("}\n");
+        }
+        ndjson.append("{not json}\n");
+
+        ProductImportResponse response = productImportService.importProducts(stream(ndjson.toString()), ProductImportFormat.NDJSON);
+
+        assertEquals(rows, response.getImported());
+        assertEquals(1, response.getRejected());
+        assertEquals(rows + 1L, response.getErrors().get(0).getRow());
+        assertEquals(rows + 1, productRepository.count());
+    }
+
+    @Test
+    void missingCsvColumnsRejectTheFile() throws IOException {
+        ProductImportResponse response = productImportService.importProducts(
+                stream("productName,price\nHawaiana,150\n"), ProductImportFormat.CSV);
+
+        assertEquals(0, response.getImported());
+        assertTrue(response.getErrors().get(0).getMessage().contains("description"));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
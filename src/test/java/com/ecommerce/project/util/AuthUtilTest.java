@@ -0,0 +1,81 @@
+package com.ecommerce.project.util;
+
+import com.ecommerce.project.TestDatabase;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repositories.UserRepository;
+import com.ecommerce.project.security.services.UserDetailsImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class AuthUtilTest {
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user1;
+
+    @BeforeEach
+    void setUp() {
+        user1 = userRepository.findByUserName("user1").orElseThrow();
+        UserDetailsImpl principal = UserDetailsImpl.build(user1);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void emailAndIdComeFromThePrincipal() {
+        newRequest();
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+
+        assertEquals("user1@example.com", authUtil.loggedInEmail());
+        assertEquals(user1.getUserId(), authUtil.loggedInUserId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userIsLoadedOncePerRequest() {
+        newRequest();
+        Statistics statistics = TestDatabase.statistics(entityManagerFactory);
+
+        // Same sequence as CartServiceImpl.createCart followed by a second lookup; the user query
+        // itself is what is counted, not the statements that initialise its collections
+        authUtil.loggedInEmail();
+        User first = authUtil.loggedInUser();
+        assertSame(first, authUtil.loggedInUser());
+        assertEquals(1, statistics.getQueryExecutionCount());
+
+        newRequest();
+        assertEquals("user1", authUtil.loggedInUser().getUserName());
+        assertEquals(2, statistics.getQueryExecutionCount());
+    }
+
+    private static void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}